@@ -0,0 +1,48 @@
+package com.skillshare.config;
+
+import com.skillshare.service.RenditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+// ✅ /uploads/x.jpg?w=300 serves the smallest pre-generated rendition at least 300px wide, else the original
+public class RenditionResourceResolver extends AbstractResourceResolver {
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Integer requested = request != null ? requestedWidth(request) : null;
+        OptionalInt width = requested != null ? RenditionService.widthFor(requested) : OptionalInt.empty();
+        if (width.isPresent()) {
+            Resource rendition = chain.resolveResource(request, RenditionService.renditionName(requestPath, width.getAsInt()), locations);
+            if (rendition != null) {
+                return rendition;
+            }
+            // Not rendered (yet) or the original is smaller anyway
+        }
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static Integer requestedWidth(HttpServletRequest request) {
+        String w = request.getParameter("w");
+        if (w == null) {
+            return null;
+        }
+        try {
+            int width = Integer.parseInt(w);
+            return width > 0 ? width : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
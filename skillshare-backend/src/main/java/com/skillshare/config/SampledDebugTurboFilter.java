@@ -0,0 +1,28 @@
+package com.skillshare.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+// ✅ Lets DEBUG from our own packages through for requests picked by CorrelationIdFilter's sampling
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.skillshare";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == Level.DEBUG
+                && logger.getName().startsWith(loggerPrefix)
+                && "true".equals(MDC.get(CorrelationIdFilter.DEBUG_SAMPLED_KEY))) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
@@ -32,6 +32,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll() // Allow access to uploads directory
+                .requestMatchers("/media/stats").authenticated()
+                .requestMatchers("/media/**").permitAll() // Public, immutable media delivery
                 .anyRequest().authenticated()
             );
 
@@ -1,5 +1,6 @@
 package com.skillshare.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -7,6 +8,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+@Slf4j
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -19,8 +21,11 @@ public class WebConfig implements WebMvcConfigurer {
         // Register the directory for serving static resources
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:" + uploadPath + "/")
-                .setCachePeriod(3600); // Cache for 1 hour (in seconds)
+                .setCachePeriod(3600) // Cache for 1 hour (in seconds)
+                // No resolver cache: the same path resolves to different files depending on ?w=
+                .resourceChain(false)
+                .addResolver(new RenditionResourceResolver());
         
-        System.out.println("Upload path configured as: " + uploadPath);
+        log.info("Upload path configured as: {}", uploadPath);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.skillshare.controller;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.FeedItemDto;
+import com.skillshare.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final FeedService feedService;
+
+    // ✅ Global feed, hydrated for the viewer (viewerId optional: likedByViewer is then always false)
+    @GetMapping
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String viewerId,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit) {
+        return pageResponse(() -> feedService.getFeed(viewerId, cursor, limit));
+    }
+
+    // ✅ Personalized home timeline, hydrated
+    @GetMapping("/timeline/{userId}")
+    public ResponseEntity<?> getTimeline(@PathVariable String userId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        return pageResponse(() -> feedService.getTimeline(userId, cursor, limit));
+    }
+
+    // ✅ One author's posts (profile page), hydrated for the viewer
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getPostsByUser(@PathVariable String userId,
+                                            @RequestParam(required = false) String viewerId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        return pageResponse(() -> feedService.getPostsByUser(userId, viewerId, cursor, limit));
+    }
+
+    private ResponseEntity<?> pageResponse(Supplier<CursorPage<FeedItemDto>> loader) {
+        try {
+            CursorPage<FeedItemDto> page = loader.get();
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("items", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+}
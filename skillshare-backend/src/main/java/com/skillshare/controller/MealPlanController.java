@@ -1,6 +1,8 @@
 package com.skillshare.controller;
 
+import com.skillshare.dto.CursorPage;
 import com.skillshare.model.MealPlan;
+import com.skillshare.model.TopicCount;
 import com.skillshare.service.MealPlanService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +35,30 @@ public class MealPlanController {
         return ResponseEntity.ok(Map.of("count", plans.size(), "plans", plans));
     }
 
+    // ✅ Browse by topic (cursor-paginated, newest first)
+    @GetMapping("/topic/{topic}")
+    public ResponseEntity<?> getPlansByTopic(@PathVariable String topic,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<MealPlan> page = mealPlanService.getPlansByTopic(topic, cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("plans", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // ✅ Top topics with plan counts (facets)
+    @GetMapping("/topics")
+    public ResponseEntity<?> getTopTopics(@RequestParam(required = false) Integer limit) {
+        List<TopicCount> topics = mealPlanService.getTopTopics(limit);
+        return ResponseEntity.ok(Map.of("count", topics.size(), "topics", topics));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, MealPlan>> getPlanById(@PathVariable String id) {
         return mealPlanService.getPlanById(id)
@@ -0,0 +1,43 @@
+package com.skillshare.controller;
+
+import com.skillshare.service.MediaDeliveryService;
+import com.skillshare.service.RenditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final String PREFIX = "/media/";
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final MediaDeliveryService mediaDelivery;
+    private final RenditionService renditionService;
+
+    // ✅ Delivery and rendition pipeline counters
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("delivery", mediaDelivery.stats());
+        response.put("renditions", renditionService.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    // ✅ /media/ab/cd/<sha256>.jpg?w=640 — same names as Post.mediaUrls, cacheable forever
+    @RequestMapping(value = "/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@RequestParam(required = false) Integer w,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = URL_PATH_HELPER.getPathWithinApplication(request);
+        mediaDelivery.serve(path.startsWith(PREFIX) ? path.substring(PREFIX.length()) : null, w, request, response);
+    }
+}
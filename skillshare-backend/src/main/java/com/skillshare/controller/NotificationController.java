@@ -1,10 +1,18 @@
 package com.skillshare.controller;
 
+import com.skillshare.dto.CursorPage;
 import com.skillshare.model.Notification;
+import com.skillshare.security.StreamTicketService;
 import com.skillshare.service.NotificationService;
+import com.skillshare.service.NotificationStreamService;
+import com.skillshare.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -14,14 +22,71 @@ import java.util.*;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService streamService;
+    private final StreamTicketService streamTicketService;
+    private final UserService userService;
 
     @GetMapping("/{userId}")
-    public ResponseEntity<?> getAll(@PathVariable String userId) {
-        List<Notification> list = notificationService.getNotificationsForUser(userId);
-        return ResponseEntity.ok(Map.of(
-                "count", list.size(),
-                "notifications", list
-        ));
+    public ResponseEntity<?> getAll(@PathVariable String userId,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<Notification> page = notificationService.getNotificationsForUser(userId, cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("notifications", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("unreadCount", notificationService.getUnreadCount(userId));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // ✅ Single-use ticket for opening the stream: new EventSource(".../stream?ticket=" + ticket)
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<?> streamTicket() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(Collections.singletonMap("ticket", streamTicketService.issue(email)));
+    }
+
+    // ✅ Real-time push; reconnects send Last-Event-ID to resume without gaps. A ticket is single-use, so a client
+    // reconnecting with a fresh ticket (new EventSource) passes its last id as ?lastEventId= instead.
+    // Only the user the ticket (or token) was issued to may open their own stream.
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable String userId,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        boolean own = userService.getUserByEmail(email).map(user -> userId.equals(user.getId())).orElse(false);
+        if (!own) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(streamService.subscribe(userId, lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam));
+    }
+
+    // ✅ Unread badge count
+    @GetMapping("/{userId}/unread-count")
+    public ResponseEntity<?> unreadCount(@PathVariable String userId) {
+        return ResponseEntity.ok(Collections.singletonMap("unreadCount", notificationService.getUnreadCount(userId)));
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<?> markRead(@PathVariable String id) {
+        boolean changed = notificationService.markRead(id);
+        return ResponseEntity.ok(Map.of("message", "Notification marked as read ✅", "changed", changed));
+    }
+
+    @PutMapping("/{userId}/read-all")
+    public ResponseEntity<?> markAllRead(@PathVariable String userId) {
+        long updated = notificationService.markAllRead(userId);
+        return ResponseEntity.ok(Map.of("message", "All notifications marked as read ✅", "updated", updated));
+    }
+
+    // ✅ Backpressure metrics of the async notification writer
+    @GetMapping("/queue/stats")
+    public ResponseEntity<?> queueStats() {
+        return ResponseEntity.ok(notificationService.getQueueStats());
     }
 
     @DeleteMapping("/{id}")
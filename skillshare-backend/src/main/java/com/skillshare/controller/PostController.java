@@ -1,6 +1,7 @@
 package com.skillshare.controller;
 
 import com.skillshare.dto.CommentDto;
+import com.skillshare.dto.CursorPage;
 import com.skillshare.dto.LikeRequest;
 import com.skillshare.model.Comment;
 import com.skillshare.model.Post;
@@ -36,13 +37,46 @@ public class PostController {
         }
     }
 
+    // ✅ Cursor-paginated feed: pass the returned nextCursor to fetch the following page
     @GetMapping
-    public ResponseEntity<?> getAll() {
-        List<Post> posts = postService.getAllPosts();
+    public ResponseEntity<?> getAll(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(pageResponse(postService.getFeedPage(cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getByUser(@PathVariable String userId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(pageResponse(postService.getPostsByUser(userId, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> pageResponse(CursorPage<Post> page) {
         Map<String, Object> response = new HashMap<>();
-        response.put("count", posts.size());
-        response.put("posts", posts);
-        return ResponseEntity.ok(response);
+        response.put("count", page.getItems().size());
+        response.put("posts", page.getItems());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
+
+    // ✅ Batch viewer state: which of the given posts has this user liked
+    @GetMapping("/liked")
+    public ResponseEntity<?> getLikedPostIds(@RequestParam String userId, @RequestParam List<String> postIds) {
+        // One feed page at most: keeps the $in list (and the query string) bounded
+        if (postIds.size() > PostService.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error",
+                    "At most " + PostService.MAX_PAGE_SIZE + " postIds per request"));
+        }
+        Set<String> liked = postService.getLikedPostIds(userId, postIds);
+        return ResponseEntity.ok(Collections.singletonMap("likedPostIds", liked));
     }
 
     @GetMapping("/{postId}")
@@ -84,29 +118,43 @@ public class PostController {
 
     @PostMapping("/{postId}/like")
     public ResponseEntity<?> like(@PathVariable String postId, @RequestBody LikeRequest request) {
-        postService.likePost(postId, request);
-        return ResponseEntity.ok(Collections.singletonMap("message", "Post liked 👍"));
+        boolean changed = postService.likePost(postId, request);
+        return ResponseEntity.ok(Map.of("message", "Post liked 👍", "changed", changed));
     }
 
     @PostMapping("/{postId}/unlike")
     public ResponseEntity<?> unlike(@PathVariable String postId, @RequestBody LikeRequest request) {
-        postService.unlikePost(postId, request);
-        return ResponseEntity.ok(Collections.singletonMap("message", "Post unliked 👎"));
+        boolean changed = postService.unlikePost(postId, request);
+        return ResponseEntity.ok(Map.of("message", "Post unliked 👎", "changed", changed));
     }
 
     @PostMapping("/{postId}/comment")
     public ResponseEntity<?> comment(@RequestBody CommentDto dto) {
-        postService.commentPost(dto);
-        return ResponseEntity.ok(Collections.singletonMap("message", "Comment added 💬"));
+        return postService.commentPost(dto)
+                .map(added -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("message", "Comment added 💬");
+                    response.put("comment", added);
+                    return ResponseEntity.ok(response);
+                })
+                .orElse(ResponseEntity.status(404).body(Collections.singletonMap("error", "Post not found")));
     }
 
+    // ✅ Oldest-first, cursor-paginated; the total is Post.commentCount
     @GetMapping("/{postId}/comments")
-    public ResponseEntity<?> getComments(@PathVariable String postId) {
-        List<Comment> comments = postService.getComments(postId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("count", comments.size());
-        response.put("comments", comments);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getComments(@PathVariable String postId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<Comment> page = postService.getComments(postId, cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("comments", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/comments/{commentId}")
@@ -0,0 +1,38 @@
+package com.skillshare.controller;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.dto.SearchHitDto;
+import com.skillshare.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.*;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // ✅ /search?q=pasta&type=post&page=0&size=20 — ranked by relevance
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(required = false) Integer size) throws IOException {
+        int pageSize = PageCursor.clampLimit(size, SearchService.DEFAULT_PAGE_SIZE, SearchService.MAX_PAGE_SIZE);
+        try {
+            List<SearchHitDto> results = searchService.search(q, type, page, pageSize);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", results.size());
+            response.put("page", page);
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.skillshare.controller;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.model.Post;
+import com.skillshare.service.TimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/timeline")
+@RequiredArgsConstructor
+public class TimelineController {
+
+    private final TimelineService timelineService;
+
+    // ✅ Personalized home timeline built from the users this user follows
+    @GetMapping("/{userId}")
+    public ResponseEntity<?> getTimeline(@PathVariable String userId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<Post> page = timelineService.getTimeline(userId, cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("posts", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.skillshare.controller;
 
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.UserBatchRequest;
 import com.skillshare.dto.UserDto;
 import com.skillshare.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -22,8 +24,7 @@ public class UserController {
     public ResponseEntity<?> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
-        System.out.println("Getting current user with email: " + email);
-        
+
         return userService.getUserByEmail(email)
                 .map(user -> {
                     Map<String, Object> response = new HashMap<>();
@@ -34,9 +35,26 @@ public class UserController {
                         .body(Collections.singletonMap("error", "User not found")));
     }
 
+    // ✅ Paginated directory: pass the returned nextCursor to fetch the following page
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
+    public ResponseEntity<?> getUsers(@RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<UserDto> page = userService.getUsers(cursor, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", page.getItems().size());
+            response.put("users", page.getItems());
+            response.put("nextCursor", page.getNextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    // ✅ People typeahead: /users/suggest?q=an
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestUsers(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        List<UserDto> users = userService.suggestUsers(q, limit);
         Map<String, Object> response = new HashMap<>();
         response.put("count", users.size());
         response.put("users", users);
@@ -55,6 +73,21 @@ public class UserController {
                         .body(Collections.singletonMap("error", "User not found")));
     }
 
+    // ✅ Hydrate many authors/senders in one round trip instead of one GET per id
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsersByIds(@RequestBody UserBatchRequest request) {
+        List<String> ids = request.getIds() == null ? List.of() : request.getIds();
+        if (ids.size() > UserService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Collections.singletonMap("error", "At most " + UserService.MAX_BATCH_SIZE + " ids per request"));
+        }
+        Map<String, UserDto> users = userService.getUsersByIds(ids);
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", users.size());
+        response.put("users", users);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable String id, @RequestBody UserDto dto) {
         return userService.updateUser(id, dto)
@@ -77,32 +110,54 @@ public class UserController {
     // ✅ Follow a user
     @PostMapping("/{id}/follow")
     public ResponseEntity<?> followUser(@PathVariable String id, @RequestParam String followerId) {
-        boolean followed = userService.followUser(id, followerId);
-        return followed
-                ? ResponseEntity.ok(Collections.singletonMap("message", "Followed successfully 💬"))
-                : ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid follow request"));
+        return userService.followUser(id, followerId)
+                .<ResponseEntity<?>>map(changed -> ResponseEntity.ok(Map.of("message", "Followed successfully 💬", "changed", changed)))
+                .orElse(ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid follow request")));
     }
 
     // ✅ Unfollow a user
     @PostMapping("/{id}/unfollow")
     public ResponseEntity<?> unfollowUser(@PathVariable String id, @RequestParam String followerId) {
-        boolean unfollowed = userService.unfollowUser(id, followerId);
-        return unfollowed
-                ? ResponseEntity.ok(Collections.singletonMap("message", "Unfollowed successfully"))
-                : ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid unfollow request"));
+        return userService.unfollowUser(id, followerId)
+                .<ResponseEntity<?>>map(changed -> ResponseEntity.ok(Map.of("message", "Unfollowed successfully", "changed", changed)))
+                .orElse(ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid unfollow request")));
+    }
+
+    // ✅ Does followerId follow this user? Drives the Follow / Unfollow button
+    @GetMapping("/{id}/follow")
+    public ResponseEntity<?> isFollowing(@PathVariable String id, @RequestParam String followerId) {
+        return ResponseEntity.ok(Collections.singletonMap("following", userService.isFollowing(id, followerId)));
     }
 
-    // ✅ Get followers list
+    // ✅ Get followers list (cursor-paginated)
     @GetMapping("/{id}/followers")
-    public ResponseEntity<?> getFollowers(@PathVariable String id) {
-        Set<String> followers = userService.getFollowers(id);
-        return ResponseEntity.ok(Collections.singletonMap("followers", followers));
+    public ResponseEntity<?> getFollowers(@PathVariable String id,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(followPageResponse("followers", userService.getFollowers(id, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
     }
 
-    // ✅ Get following list
+    // ✅ Get following list (cursor-paginated)
     @GetMapping("/{id}/following")
-    public ResponseEntity<?> getFollowing(@PathVariable String id) {
-        Set<String> following = userService.getFollowing(id);
-        return ResponseEntity.ok(Collections.singletonMap("following", following));
+    public ResponseEntity<?> getFollowing(@PathVariable String id,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(followPageResponse("following", userService.getFollowing(id, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> followPageResponse(String key, CursorPage<String> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(key, page.getItems());
+        response.put("count", page.getItems().size());
+        response.put("nextCursor", page.getNextCursor());
+        return response;
     }
 }
@@ -0,0 +1,23 @@
+package com.skillshare.dto;
+
+import com.skillshare.model.Rendition;
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+// ✅ Everything needed to render one post card: no follow-up requests for the author, counts or like state
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedItemDto {
+    private String id;
+    private String content;
+    private List<String> mediaUrls;
+    private List<Rendition> renditions;
+    private Date createdAt;
+    private UserDto author;          // null when the author account no longer exists
+    private int likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+}
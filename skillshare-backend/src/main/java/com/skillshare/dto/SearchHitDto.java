@@ -0,0 +1,14 @@
+package com.skillshare.dto;
+
+import lombok.*;
+
+// ✅ One ranked search result; item is the Post or MealPlan loaded from MongoDB
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+    private String type;     // "post" | "mealplan"
+    private String id;
+    private float score;
+    private Object item;
+}
@@ -0,0 +1,10 @@
+package com.skillshare.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserBatchRequest {
+    private List<String> ids;
+}
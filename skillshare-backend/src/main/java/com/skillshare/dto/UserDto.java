@@ -11,4 +11,6 @@ public class UserDto {
     private String lastname;
     private String profilePic;
     private String bio;
+    private long followerCount;     // read-only: ignored by updateUser
+    private long followingCount;
 }
@@ -2,11 +2,14 @@ package com.skillshare.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Document(collection = "comments")
+// ✅ Keyset pagination of a post's comments, oldest first
+@CompoundIndex(name = "post_createdAt_id", def = "{'postId': 1, 'createdAt': 1, '_id': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,28 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// ✅ One edge per (follower, followee); users only carry followerCount / followingCount
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee_unique", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        // Keyset pagination of a user's followers / following, newest first
+        @CompoundIndex(name = "followee_createdAt_id", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "follower_createdAt_id", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Date createdAt = new Date();
+}
@@ -2,14 +2,19 @@ package com.skillshare.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
 import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "mealplans")
+// ✅ Multikey index: one entry per topic, newest plan first within a topic
+@CompoundIndex(name = "topics_id", def = "{'topics': 1, '_id': -1}")
 public class MealPlan {
 
     @Id
@@ -18,6 +23,13 @@ public class MealPlan {
     private String userId;
     private String title;
     private String description;
-    private List<String> topics;
-    private String deadline;
+    private List<String> topics;   // normalized (trimmed, lower-case, distinct) by MealPlanService
+    private String deadline;       // as entered by the user
+
+    @Indexed(sparse = true)
+    private Date deadlineAt;       // parsed from deadline by MealPlanReminderScheduler; null if unparseable
+
+    // ✅ Pending reminder time; removed once the reminder is sent, so the index only holds upcoming reminders
+    @Indexed(sparse = true)
+    private Date reminderAt;
 }
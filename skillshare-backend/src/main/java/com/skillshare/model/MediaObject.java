@@ -0,0 +1,21 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// ✅ One document per distinct file content (id = SHA-256), counting the post media references to it
+@Document(collection = "media")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaObject {
+    @Id
+    private String id;
+    private String path;        // relative to uploads/, e.g. "3f/a2/3fa2...9c.jpg"
+    private long size;
+    private long refCount;
+    private Date createdAt;
+}
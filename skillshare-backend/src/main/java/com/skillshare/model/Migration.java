@@ -0,0 +1,19 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// ✅ Marker for a one-shot data migration (id = migration name); its existence means "claimed, never run again"
+@Document(collection = "migrations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Migration {
+    @Id
+    private String id;
+    private Date cutoff;        // data written before this instant is migrated; later writes keep themselves current
+    private Date completedAt;   // null while running, or if the run failed
+}
@@ -2,22 +2,44 @@ package com.skillshare.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
+import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
+@CompoundIndexes({
+        // ✅ Newest-first keyset pagination per receiver
+        @CompoundIndex(name = "user_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
+// The unique coalesce_key index is ensured by NotificationDispatcher (it replaces an older non-unique one)
 public class Notification {
     @Id
     private String id;
     private String userId;      // Receiver
-    private String senderId;    // Triggered by
+    private String senderId;    // Triggered by (most recent actor when coalesced)
     private String type;        // "like", "comment", "follow"
     private String postId;      // Optional for post-related actions
     private String message;
+
     private Date createdAt;
+
+    private boolean read;
+
+    // ✅ TTL index: MongoDB removes notifications 90 days after they were read. Unread ones have no readAt and are
+    // never expired behind the unread counter's back
+    @Indexed(name = "readAt_ttl", expireAfter = "90d")
+    private Date readAt;
+
+    // ✅ Coalescing: "Alice and 41 others liked your post"
+    private int actorCount;              // number of actions merged into this notification
+    private List<String> recentSenderIds; // newest last, capped
+    private Date windowStart;            // start of the coalescing window, null when not coalesced
 }
@@ -0,0 +1,16 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// ✅ Per-user unread counter (id = userId), maintained with $inc so reading it is a single _id lookup
+@Document(collection = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCounter {
+    @Id
+    private String id;
+    private long unread;
+}
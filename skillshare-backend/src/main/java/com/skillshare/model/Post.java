@@ -2,11 +2,18 @@ package com.skillshare.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.*;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+        // ✅ Keyset pagination for the global feed and per-author listings
+        @CompoundIndex(name = "feed_createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "author_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +23,8 @@ public class Post {
     private String userId;
     private String content;
     private List<String> mediaUrls = new ArrayList<>();
-    private Set<String> likedUserIds = new HashSet<>();
+    private List<Rendition> renditions = new ArrayList<>();   // ✅ Filled in by the background rendition pipeline
+    private int likeCount;   // ✅ Likes themselves live in the "likes" collection
+    private int commentCount;   // ✅ Maintained with $inc by CommentService
     private Date createdAt = new Date();
 }
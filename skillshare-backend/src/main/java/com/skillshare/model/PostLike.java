@@ -0,0 +1,26 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// ✅ One document per (post, user) like; the post itself only carries likeCount
+@Document(collection = "likes")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_user_unique", def = "{'postId': 1, 'userId': 1}", unique = true),
+        @CompoundIndex(name = "user_post", def = "{'userId': 1, 'postId': 1}")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLike {
+    @Id
+    private String id;
+    private String postId;
+    private String userId;
+    private Date createdAt = new Date();
+}
@@ -0,0 +1,14 @@
+package com.skillshare.model;
+
+import lombok.*;
+
+// ✅ A resized copy of one of the post's media files (embedded in Post.renditions)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rendition {
+    private String source;      // the entry of Post.mediaUrls it was generated from
+    private String fileName;    // relative to uploads/
+    private int width;
+    private int height;
+}
@@ -0,0 +1,19 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ✅ Materialized home timeline, one document per reader (id = reader's userId)
+@Document(collection = "timelines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Timeline {
+    @Id
+    private String id;
+    private List<TimelineEntry> entries = new ArrayList<>();   // newest first, capped
+}
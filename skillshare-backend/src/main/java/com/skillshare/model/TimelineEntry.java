@@ -0,0 +1,14 @@
+package com.skillshare.model;
+
+import lombok.*;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntry {
+    private String postId;
+    private String authorId;
+    private Date createdAt;
+}
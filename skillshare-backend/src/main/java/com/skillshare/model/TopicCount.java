@@ -0,0 +1,19 @@
+package com.skillshare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// ✅ Meal plans per topic (id = normalized topic), maintained with $inc so "top topics" never scans plans
+@Document(collection = "topic_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicCount {
+    @Id
+    private String id;
+    @Indexed(name = "count_desc", direction = IndexDirection.DESCENDING)
+    private long count;
+}
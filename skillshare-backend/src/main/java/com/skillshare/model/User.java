@@ -4,9 +4,6 @@ import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Document(collection = "users")
 @Data
 @NoArgsConstructor
@@ -25,6 +22,7 @@ public class User {
     private String profilePic;  // image filename or full URL
     private String bio;         // user bio or description
 
-    private Set<String> followers = new HashSet<>();
-    private Set<String> following = new HashSet<>();
+    // ✅ The follow graph itself lives in the "follows" collection
+    private long followerCount;
+    private long followingCount;
 }
@@ -3,8 +3,6 @@ package com.skillshare.repository;
 import com.skillshare.model.Comment;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.List;
-
-public interface CommentRepository extends MongoRepository<Comment, String> {
-    List<Comment> findByPostId(String postId);
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
+    long deleteByPostId(String postId);
 }
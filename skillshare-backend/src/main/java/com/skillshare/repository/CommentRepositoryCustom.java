@@ -0,0 +1,22 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Comment;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface CommentRepositoryCustom {
+
+    // Oldest-first keyset page of one post's comments
+    List<Comment> findPage(String postId, PageCursor after, int limit);
+
+    // Atomic find-and-delete: only one concurrent caller gets the removed comment back
+    Optional<Comment> removeById(String commentId);
+
+    // postId -> number of comments created before the cutoff, in one aggregation; posts without comments are absent
+    Map<String, Long> countByPostIds(Collection<String> postIds, Date before);
+}
@@ -0,0 +1,65 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.Comment;
+import com.skillshare.dto.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Comment> findPage(String postId, PageCursor after, int limit) {
+        Query query = Query.query(Criteria.where("postId").is(postId));
+        if (after != null) {
+            query.addCriteria(afterCursor(after));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Optional<Comment> removeById(String commentId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(commentId)), Comment.class));
+    }
+
+    @Override
+    public Map<String, Long> countByPostIds(Collection<String> postIds, Date before) {
+        Map<String, Long> counts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return counts;
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("postId").in(postIds).orOperator(
+                        Criteria.where("createdAt").lt(before), Criteria.where("createdAt").exists(false))),
+                Aggregation.group("postId").count().as("count"));
+        mongoTemplate.aggregate(aggregation, Comment.class, Document.class).forEach(doc ->
+                counts.put(doc.getString("_id"), ((Number) doc.get("count")).longValue()));
+        return counts;
+    }
+
+    // (createdAt, _id) > (cursor.createdAt, cursor.id), matching the ascending compound index
+    private static Criteria afterCursor(PageCursor cursor) {
+        Object id = ObjectId.isValid(cursor.getId()) ? new ObjectId(cursor.getId()) : cursor.getId();
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").gt(cursor.getCreatedAt()),
+                Criteria.where("createdAt").is(cursor.getCreatedAt()).and("_id").gt(id)
+        );
+    }
+}
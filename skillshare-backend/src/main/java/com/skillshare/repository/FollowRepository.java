@@ -0,0 +1,18 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.Follow;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface FollowRepository extends MongoRepository<Follow, String>, FollowRepositoryCustom {
+    long deleteByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    boolean existsByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    long countByFolloweeId(String followeeId);
+
+    long countByFollowerId(String followerId);
+
+    long deleteByFollowerId(String followerId);
+
+    long deleteByFolloweeId(String followeeId);
+}
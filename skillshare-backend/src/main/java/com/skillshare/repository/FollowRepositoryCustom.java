@@ -0,0 +1,23 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Follow;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface FollowRepositoryCustom {
+
+    // Atomic upsert of the edge; true only when this call created it (retries and races return false)
+    boolean upsert(String followerId, String followeeId);
+
+    // Newest-first keyset pages of edges pointing at / coming from a user
+    List<Follow> findFollowers(String userId, PageCursor before, int limit);
+
+    List<Follow> findFollowing(String userId, PageCursor before, int limit);
+
+    // Streams follower ids from the index in chunks, never holding the whole list in memory
+    void forEachFollowerIdBatch(String userId, int batchSize, Consumer<List<String>> consumer);
+
+    List<String> findFollowingIds(String userId);
+}
@@ -0,0 +1,85 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Follow;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class FollowRepositoryImpl implements FollowRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean upsert(String followerId, String followeeId) {
+        Query query = Query.query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+        try {
+            UpdateResult result = mongoTemplate.upsert(query, new Update().setOnInsert("createdAt", new Date()), Follow.class);
+            return result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            // A concurrent upsert of the same edge won the insert: the edge exists, this call changed nothing
+            return false;
+        }
+    }
+
+    @Override
+    public List<Follow> findFollowers(String userId, PageCursor before, int limit) {
+        return findPage("followeeId", userId, before, limit);
+    }
+
+    @Override
+    public List<Follow> findFollowing(String userId, PageCursor before, int limit) {
+        return findPage("followerId", userId, before, limit);
+    }
+
+    private List<Follow> findPage(String field, String userId, PageCursor before, int limit) {
+        Query query = Query.query(Criteria.where(field).is(userId));
+        if (before != null) {
+            query.addCriteria(PostRepositoryImpl.beforeCursor(before));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, Follow.class);
+    }
+
+    @Override
+    public void forEachFollowerIdBatch(String userId, int batchSize, Consumer<List<String>> consumer) {
+        Query query = Query.query(Criteria.where("followeeId").is(userId));
+        query.fields().include("followerId");
+        query.cursorBatchSize(batchSize);
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<Follow> edges = mongoTemplate.stream(query, Follow.class)) {
+            edges.forEach(edge -> {
+                batch.add(edge.getFollowerId());
+                if (batch.size() == batchSize) {
+                    consumer.accept(new ArrayList<>(batch));
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    @Override
+    public List<String> findFollowingIds(String userId) {
+        Query query = Query.query(Criteria.where("followerId").is(userId));
+        query.fields().include("followeeId");
+        return mongoTemplate.find(query, Follow.class).stream()
+                .map(Follow::getFolloweeId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,17 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.PostLike;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LikeRepository extends MongoRepository<PostLike, String> {
+    List<PostLike> findByUserIdAndPostIdIn(String userId, Collection<String> postIds);
+
+    long deleteByPostIdAndUserId(String postId, String userId);
+
+    long deleteByPostId(String postId);
+
+    long countByPostId(String postId);
+}
@@ -7,6 +7,6 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface MealPlanRepository extends MongoRepository<MealPlan, String> {
+public interface MealPlanRepository extends MongoRepository<MealPlan, String>, MealPlanRepositoryCustom {
     List<MealPlan> findByUserId(String userId);
 }
@@ -0,0 +1,19 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.MealPlan;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MealPlanRepositoryCustom {
+
+    // Newest-first keyset page (by _id) of plans tagged with a topic, served from the topics multikey index
+    List<MealPlan> findByTopicPage(String topic, String beforeId, int limit);
+
+    // Atomic find-and-modify returning the document as it was before the update
+    Optional<MealPlan> updateAndGetPrevious(String id, Update update);
+
+    // Atomic find-and-delete: only one concurrent caller gets the removed plan back
+    Optional<MealPlan> removeById(String id);
+}
@@ -0,0 +1,42 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.MealPlan;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class MealPlanRepositoryImpl implements MealPlanRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<MealPlan> findByTopicPage(String topic, String beforeId, int limit) {
+        Query query = Query.query(Criteria.where("topics").is(topic));
+        if (beforeId != null) {
+            query.addCriteria(Criteria.where("_id").lt(new ObjectId(beforeId)));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "_id")).limit(limit);
+        return mongoTemplate.find(query, MealPlan.class);
+    }
+
+    @Override
+    public Optional<MealPlan> updateAndGetPrevious(String id, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(false), MealPlan.class));
+    }
+
+    @Override
+    public Optional<MealPlan> removeById(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(id)), MealPlan.class));
+    }
+}
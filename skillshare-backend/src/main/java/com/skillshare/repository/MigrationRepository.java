@@ -0,0 +1,7 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.Migration;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MigrationRepository extends MongoRepository<Migration, String>, MigrationRepositoryCustom {
+}
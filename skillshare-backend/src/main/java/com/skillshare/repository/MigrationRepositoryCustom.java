@@ -0,0 +1,11 @@
+package com.skillshare.repository;
+
+import java.util.Date;
+
+public interface MigrationRepositoryCustom {
+
+    // Inserts the marker; false when another run (or instance) already claimed it
+    boolean claim(String name, Date cutoff);
+
+    void complete(String name);
+}
@@ -0,0 +1,33 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.Migration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+
+@RequiredArgsConstructor
+public class MigrationRepositoryImpl implements MigrationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean claim(String name, Date cutoff) {
+        try {
+            mongoTemplate.insert(new Migration(name, cutoff, null));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String name) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(name)),
+                new Update().set("completedAt", new Date()), Migration.class);
+    }
+}
@@ -0,0 +1,8 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.NotificationCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface NotificationCounterRepository extends MongoRepository<NotificationCounter, String>,
+        NotificationCounterRepositoryCustom {
+}
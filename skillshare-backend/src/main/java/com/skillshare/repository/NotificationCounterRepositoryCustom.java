@@ -0,0 +1,11 @@
+package com.skillshare.repository;
+
+import java.util.Map;
+
+public interface NotificationCounterRepositoryCustom {
+
+    // Applies per-user unread deltas in one bulk write, creating counters as needed
+    void incrementUnread(Map<String, Long> deltas);
+
+    void resetUnread(String userId);
+}
@@ -0,0 +1,34 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.NotificationCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class NotificationCounterRepositoryImpl implements NotificationCounterRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementUnread(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        deltas.forEach((userId, delta) ->
+                bulk.upsert(Query.query(Criteria.where("_id").is(userId)), new Update().inc("unread", delta)));
+        bulk.execute();
+    }
+
+    @Override
+    public void resetUnread(String userId) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                new Update().set("unread", 0L), NotificationCounter.class);
+    }
+}
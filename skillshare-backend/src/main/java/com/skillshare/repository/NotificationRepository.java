@@ -3,8 +3,5 @@ package com.skillshare.repository;
 import com.skillshare.model.Notification;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.List;
-
-public interface NotificationRepository extends MongoRepository<Notification, String> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(String userId);
+public interface NotificationRepository extends MongoRepository<Notification, String>, NotificationRepositoryCustom {
 }
@@ -0,0 +1,28 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Notification;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationRepositoryCustom {
+
+    // Newest-first keyset page of one user's notifications
+    List<Notification> findPage(String userId, PageCursor before, int limit);
+
+    // Oldest-first notifications strictly after the cursor, used to replay missed SSE events
+    List<Notification> findAfter(String userId, PageCursor after, int limit);
+
+    // The live coalesced notification for (receiver, type, post, window)
+    Notification findCoalesced(String userId, String type, String postId, Date windowStart);
+
+    // Flips read=false -> true; returns the notification only if it was unread before
+    Notification markRead(String id);
+
+    long markAllRead(String userId);
+
+    // Atomic find-and-delete: only one concurrent caller gets the removed notification back
+    Optional<Notification> removeById(String id);
+}
@@ -0,0 +1,73 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Notification> findPage(String userId, PageCursor before, int limit) {
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        if (before != null) {
+            query.addCriteria(PostRepositoryImpl.beforeCursor(before));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, Notification.class);
+    }
+
+    @Override
+    public List<Notification> findAfter(String userId, PageCursor after, int limit) {
+        Object id = ObjectId.isValid(after.getId()) ? new ObjectId(after.getId()) : after.getId();
+        Query query = Query.query(Criteria.where("userId").is(userId).orOperator(
+                Criteria.where("createdAt").gt(after.getCreatedAt()),
+                Criteria.where("createdAt").is(after.getCreatedAt()).and("_id").gt(id)
+        ));
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, Notification.class);
+    }
+
+    @Override
+    public Notification findCoalesced(String userId, String type, String postId, Date windowStart) {
+        Query query = Query.query(Criteria.where("userId").is(userId)
+                .and("type").is(type)
+                .and("postId").is(postId)
+                .and("windowStart").is(windowStart)
+                .and("read").is(false));
+        return mongoTemplate.findOne(query, Notification.class);
+    }
+
+    @Override
+    public Notification markRead(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("read").is(false));
+        return mongoTemplate.findAndModify(query, new Update().set("read", true).set("readAt", new Date()),
+                Notification.class);
+    }
+
+    @Override
+    public long markAllRead(String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("read").is(false));
+        return mongoTemplate.updateMulti(query, new Update().set("read", true).set("readAt", new Date()),
+                        Notification.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public Optional<Notification> removeById(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(id)), Notification.class));
+    }
+}
@@ -3,5 +3,5 @@ package com.skillshare.repository;
 import com.skillshare.model.Post;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface PostRepository extends MongoRepository<Post, String> {
+public interface PostRepository extends MongoRepository<Post, String>, PostRepositoryCustom {
 }
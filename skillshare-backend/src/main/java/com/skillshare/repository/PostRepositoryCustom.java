@@ -0,0 +1,31 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Post;
+import com.skillshare.model.Rendition;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PostRepositoryCustom {
+
+    // Newest-first keyset page; authorIds == null means all authors
+    List<Post> findPage(Collection<String> authorIds, PageCursor before, int limit);
+
+    // Atomic $inc of likeCount; false when the post does not exist
+    boolean incrementLikeCount(String postId, int delta);
+
+    // Atomic $inc of commentCount; false when the post does not exist
+    boolean incrementCommentCount(String postId, int delta);
+
+    // Atomic find-and-modify returning the post as it was before the update
+    Optional<Post> updateAndGetPrevious(String postId, Update update);
+
+    // Reads just the author id, without loading the whole post
+    Optional<String> findOwnerId(String postId);
+
+    // Appends renditions only while the post still references the source file
+    boolean addRenditions(String postId, String source, List<Rendition> renditions);
+}
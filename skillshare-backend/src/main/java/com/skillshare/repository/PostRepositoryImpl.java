@@ -0,0 +1,81 @@
+package com.skillshare.repository;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Post;
+import com.skillshare.model.Rendition;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Post> findPage(Collection<String> authorIds, PageCursor before, int limit) {
+        Query query = new Query();
+        if (authorIds != null) {
+            query.addCriteria(Criteria.where("userId").in(authorIds));
+        }
+        if (before != null) {
+            query.addCriteria(beforeCursor(before));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    @Override
+    public boolean incrementLikeCount(String postId, int delta) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId)), new Update().inc("likeCount", delta), Post.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean incrementCommentCount(String postId, int delta) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId)), new Update().inc("commentCount", delta), Post.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<Post> updateAndGetPrevious(String postId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(postId)), update,
+                FindAndModifyOptions.options().returnNew(false), Post.class));
+    }
+
+    @Override
+    public Optional<String> findOwnerId(String postId) {
+        Query query = Query.query(Criteria.where("_id").is(postId));
+        query.fields().include("userId");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Post.class)).map(Post::getUserId);
+    }
+
+    @Override
+    public boolean addRenditions(String postId, String source, List<Rendition> renditions) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId).and("mediaUrls").is(source)),
+                new Update().push("renditions").each(renditions.toArray()), Post.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    // (createdAt, _id) < (cursor.createdAt, cursor.id), matching the compound index order
+    static Criteria beforeCursor(PageCursor cursor) {
+        Object id = ObjectId.isValid(cursor.getId()) ? new ObjectId(cursor.getId()) : cursor.getId();
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(cursor.getCreatedAt()),
+                Criteria.where("createdAt").is(cursor.getCreatedAt()).and("_id").lt(id)
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.Timeline;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface TimelineRepository extends MongoRepository<Timeline, String> {
+}
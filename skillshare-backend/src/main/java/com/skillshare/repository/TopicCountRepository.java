@@ -0,0 +1,7 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.TopicCount;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface TopicCountRepository extends MongoRepository<TopicCount, String>, TopicCountRepositoryCustom {
+}
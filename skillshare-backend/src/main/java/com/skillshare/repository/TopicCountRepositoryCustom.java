@@ -0,0 +1,14 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.TopicCount;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TopicCountRepositoryCustom {
+
+    // Applies per-topic deltas in one bulk write, creating counters as needed and dropping those that reach zero
+    void applyDeltas(Map<String, Long> deltas);
+
+    List<TopicCount> findTop(int limit);
+}
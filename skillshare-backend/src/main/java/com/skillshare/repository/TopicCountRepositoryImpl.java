@@ -0,0 +1,40 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.TopicCount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TopicCountRepositoryImpl implements TopicCountRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void applyDeltas(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TopicCount.class);
+        deltas.forEach((topic, delta) ->
+                bulk.upsert(Query.query(Criteria.where("_id").is(topic)), new Update().inc("count", delta)));
+        bulk.execute();
+
+        if (deltas.values().stream().anyMatch(delta -> delta < 0)) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(deltas.keySet()).and("count").lte(0)), TopicCount.class);
+        }
+    }
+
+    @Override
+    public List<TopicCount> findTop(int limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "count")).limit(limit);
+        return mongoTemplate.find(query, TopicCount.class);
+    }
+}
@@ -0,0 +1,18 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Keyset page ordered by _id, reading only the public profile fields (never the password hash)
+    List<User> findDirectoryPage(String afterId, int limit);
+
+    // $set of the editable profile fields only, leaving the $inc-maintained counters alone; returns the updated user
+    Optional<User> updateProfile(String id, String firstname, String lastname, String profilePic, String bio);
+
+    // Atomic $inc of follower.followingCount and followee.followerCount
+    void incrementFollowCounts(String followerId, String followeeId, int delta);
+}
@@ -0,0 +1,54 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String[] DIRECTORY_FIELDS =
+            {"firstname", "lastname", "profilePic", "bio", "followerCount", "followingCount"};
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<User> findDirectoryPage(String afterId, int limit) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        query.fields().include(DIRECTORY_FIELDS);
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Optional<User> updateProfile(String id, String firstname, String lastname, String profilePic, String bio) {
+        Update update = new Update()
+                .set("firstname", firstname)
+                .set("lastname", lastname)
+                .set("profilePic", profilePic)
+                .set("bio", bio);
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public void incrementFollowCounts(String followerId, String followeeId, int delta) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        bulk.updateOne(Query.query(Criteria.where("_id").is(followerId)), new Update().inc("followingCount", delta));
+        bulk.updateOne(Query.query(Criteria.where("_id").is(followeeId)), new Update().inc("followerCount", delta));
+        bulk.execute();
+    }
+}
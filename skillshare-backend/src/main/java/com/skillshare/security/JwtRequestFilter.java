@@ -5,21 +5,26 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -27,60 +32,52 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String authorizationHeader = request.getHeader("Authorization");
+        String authorizationHeader = request.getHeader("Authorization");
         String requestURI = request.getRequestURI();
-        
-        // Debug log - print request URI and auth header (partially obscured for security)
-        System.out.println("Request URI: " + requestURI);
-        if (authorizationHeader != null) {
-            System.out.println("Auth header present: " + authorizationHeader.substring(0, Math.min(20, authorizationHeader.length())) + "...");
-        } else {
-            System.out.println("No auth header found in request");
-        }
-        
-        String username = null;
-        String jwt = null;
-        
-        // Extract the JWT token if present in the Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-                System.out.println("Extracted username from token: " + username);
-            } catch (Exception e) {
-                // Log the exception - invalid token
-                System.out.println("Invalid JWT token: " + e.getMessage());
-            }
+
+        // EventSource cannot set headers, so SSE streams pass a single-use ticket (never the JWT) in the query
+        if (authorizationHeader == null && requestURI.endsWith("/stream") && request.getParameter("ticket") != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            streamTicketService.redeem(request.getParameter("ticket")).ifPresent(username -> authenticate(username, request));
         }
-        
+
+        // Level-gated: no string building unless DEBUG is on for this request
+        log.debug("Request URI: {}, auth header present: {}", requestURI, authorizationHeader != null);
+
         // Always allow auth endpoints without authentication
         if (requestURI.startsWith("/auth/")) {
             filterChain.doFilter(request, response);
             return;
         }
-        
-        // Validate the token and set up Spring Security context
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            
-            // Validate the token
-            if (jwtUtil.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                // Debug log
-                System.out.println("✅ Authentication successful for user: " + username);
+
+        // ✅ One verification per token (cached until it expires), then a cached UserDetails lookup
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            Optional<String> username = jwtUtil.validateAndGetUsername(jwt);
+            if (username.isPresent()) {
+                authenticate(username.get(), request);
             } else {
-                System.out.println("❌ Token validation failed for user: " + username);
+                log.debug("Token validation failed for protected endpoint: {}", requestURI);
             }
-        } else if (username == null && !requestURI.startsWith("/auth/")) {
-            System.out.println("⚠️ No username found in token for protected endpoint: " + requestURI);
+        } else if (authorizationHeader == null) {
+            log.debug("No token found for protected endpoint: {}", requestURI);
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(String username, HttpServletRequest request) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        } catch (UsernameNotFoundException e) {
+            log.debug("Token user no longer exists: {}", username);
+        }
+    }
 }
@@ -1,15 +1,23 @@
 package com.skillshare.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+@Slf4j
 @Component
 public class JwtUtil {
 
@@ -19,9 +27,43 @@ public class JwtUtil {
     @Value("${jwt.expirationMs}")
     private int jwtExpirationMs;
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.cache.max-size:10000}")
+    private long tokenCacheSize;
+
+    // ✅ Decoded once: building the HMAC key per call was pure overhead
+    private Key signKey;
+    private JwtParser parser;
+
+    // Verified tokens -> subject; each entry expires exactly when its token does
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(String username, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        long remainingMs = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username) {
@@ -29,10 +71,35 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // ✅ Single-parse validation: signature and expiry are checked by one parse, then cached until expiry
+    public Optional<String> validateAndGetUsername(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return Optional.of(cached.username());
+        }
+        try {
+            Claims claims = extractAllClaims(token);   // throws ExpiredJwtException for expired tokens
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(token, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            return Optional.of(claims.getSubject());
+        } catch (ExpiredJwtException e) {
+            log.debug("JWT token is expired: {}", e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -47,73 +114,10 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSignKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (JwtException e) {
-            System.out.println("Error parsing JWT token: " + e.getMessage());
-            throw e;
-        }
-    }
-
-    private Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = extractExpiration(token);
-            boolean isExpired = expiration.before(new Date());
-            if (isExpired) {
-                System.out.println("Token is expired. Expiration: " + expiration + ", Current time: " + new Date());
-            }
-            return isExpired;
-        } catch (Exception e) {
-            System.out.println("Error checking token expiration: " + e.getMessage());
-            return true; // Consider token expired if we can't check it
-        }
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token) {
-        if (token == null) {
-            System.out.println("Token is null");
-            return false;
-        }
-
-        try {
-            // First, try to parse the token without checking expiration
-            String username = extractUsername(token);
-            System.out.println("Validating token for user: " + username);
-            
-            // Then check if token is expired
-            if (isTokenExpired(token)) {
-                System.out.println("JWT token is expired for user: " + username);
-                return false;
-            }
-            
-            // If everything is fine, return true
-            System.out.println("Token is valid for user: " + username);
-            return true;
-        } catch (ExpiredJwtException e) {
-            System.out.println("JWT token is expired: " + e.getMessage());
-            return false;
-        } catch (UnsupportedJwtException e) {
-            System.out.println("JWT token is unsupported: " + e.getMessage());
-            return false;
-        } catch (MalformedJwtException e) {
-            System.out.println("Invalid JWT token: " + e.getMessage());
-            return false;
-        } catch (SignatureException e) {
-            System.out.println("Invalid JWT signature: " + e.getMessage());
-            return false;
-        } catch (IllegalArgumentException e) {
-            System.out.println("JWT claims string is empty: " + e.getMessage());
-            return false;
-        } catch (JwtException e) {
-            System.out.println("JWT exception: " + e.getMessage());
-            return false;
-        } catch (Exception e) {
-            System.out.println("Unexpected error validating token: " + e.getMessage());
-            return false;
-        }
+        return validateAndGetUsername(token).isPresent();
     }
 }
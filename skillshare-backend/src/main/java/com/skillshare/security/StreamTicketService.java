@@ -0,0 +1,42 @@
+package com.skillshare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+// ✅ Short-lived, single-use tickets for EventSource connections, which cannot send an Authorization header.
+// Only the ticket ever appears in a URL (and so in access/proxy logs), never the long-lived JWT.
+@Service
+public class StreamTicketService {
+
+    private final SecureRandom random = new SecureRandom();
+
+    // ticket -> username
+    private final Cache<String, String> tickets;
+
+    public StreamTicketService(@Value("${security.stream-ticket.ttl-seconds:30}") long ttlSeconds) {
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public String issue(String username) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, username);
+        return ticket;
+    }
+
+    // Atomic remove: a ticket authenticates exactly one connection
+    public Optional<String> redeem(String ticket) {
+        return Optional.ofNullable(tickets.asMap().remove(ticket));
+    }
+}
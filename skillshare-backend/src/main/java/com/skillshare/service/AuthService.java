@@ -7,6 +7,7 @@ import com.skillshare.model.User;
 import com.skillshare.repository.UserRepository;
 import com.skillshare.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,6 +16,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -23,38 +25,34 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSuggestIndex suggestIndex;
 
     public AuthResponse login(AuthRequest request) {
         try {
-            System.out.println("Login attempt for email: " + request.getEmail());
+            log.debug("Login attempt for email: {}", request.getEmail());
             
             // Check if user exists first
             User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + request.getEmail()));
-            
-            System.out.println("User found in database: " + user.getEmail());
-            
+
             // Perform authentication
             Authentication authentication = authManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
             
-            System.out.println("Authentication successful: " + authentication.isAuthenticated());
+            log.debug("Authentication successful: {}", authentication.isAuthenticated());
 
             // Generate token
             String token = jwtUtil.generateToken(request.getEmail());
-            System.out.println("JWT token generated successfully");
-            
             return new AuthResponse(token);
         } catch (BadCredentialsException e) {
-            System.out.println("Bad credentials for user: " + request.getEmail());
+            log.info("Bad credentials for user: {}", request.getEmail());
             throw e;
         } catch (UsernameNotFoundException e) {
-            System.out.println("User not found: " + request.getEmail());
+            log.info("User not found: {}", request.getEmail());
             throw e;
         } catch (Exception e) {
-            System.out.println("Authentication error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Authentication error", e);
             throw e;
         }
     }
@@ -73,12 +71,13 @@ public class AuthService {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             
             User savedUser = userRepository.save(user);
-            System.out.println("User registered successfully: " + savedUser.getEmail());
+            log.info("User registered successfully: {}", savedUser.getEmail());
+            suggestIndex.put(savedUser);   // ✅ Findable in typeahead right away
 
             String token = jwtUtil.generateToken(user.getEmail());
             return new AuthResponse(token);
         } catch (Exception e) {
-            System.out.println("Registration error: " + e.getMessage());
+            log.warn("Registration error: {}", e.getMessage());
             throw e;
         }
     }
@@ -1,35 +1,65 @@
 package com.skillshare.service;
 
 import com.skillshare.dto.CommentDto;
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
 import com.skillshare.model.Comment;
 import com.skillshare.model.Post;
 import com.skillshare.repository.CommentRepository;
 import com.skillshare.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CommentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepo;
     private final PostRepository postRepo;
+    private final MongoTemplate mongoTemplate;
+    private final MigrationService migrationService;
 
-    // ✅ Add comment
-    public Comment addComment(CommentDto dto) {
+    // ✅ Add comment and bump Post.commentCount atomically; empty when the post does not exist
+    public Optional<Comment> addComment(CommentDto dto) {
         Comment comment = new Comment();
         comment.setPostId(dto.getPostId());
         comment.setUserId(dto.getUserId());
         comment.setText(dto.getText());
         comment.setCreatedAt(new Date());
-        return commentRepo.save(comment);
+        Comment saved = commentRepo.save(comment);
+        if (!postRepo.incrementCommentCount(dto.getPostId(), 1)) {
+            // Post does not exist (or was deleted meanwhile) – don't leave an orphan comment behind
+            commentRepo.deleteById(saved.getId());
+            return Optional.empty();
+        }
+        return Optional.of(saved);
     }
 
-    // ✅ Get all comments for a post
-    public List<Comment> getComments(String postId) {
-        return commentRepo.findByPostId(postId);
+    // ✅ Oldest-first page of a post's comments, served from the (postId, createdAt, _id) index
+    public CursorPage<Comment> getComments(String postId, String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        List<Comment> comments = commentRepo.findPage(postId, PageCursor.decode(cursor), size + 1);
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(comments, nextCursor);
     }
 
     // ✅ Get comment by ID
@@ -45,8 +75,49 @@ public class CommentService {
         });
     }
 
-    // ✅ Delete comment
+    // ✅ Delete comment: only the caller that actually removed it decrements the count
     public void deleteComment(String commentId) {
-        commentRepo.deleteById(commentId);
+        commentRepo.removeById(commentId)
+                .ifPresent(removed -> postRepo.incrementCommentCount(removed.getPostId(), -1));
+    }
+
+    public void deleteCommentsForPost(String postId) {
+        commentRepo.deleteByPostId(postId);
+    }
+
+    // Adds the comments written before commentCount existed, once. Comments after the cutoff already $inc'd the
+    // counter themselves (even on legacy posts, where the first $inc creates the field), so only older comments are
+    // counted and added with $inc rather than $set. 500 posts per aggregation.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCommentCounts() {
+        migrationService.runOnce("post-comment-counts", cutoff -> {
+            Query legacy = Query.query(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(cutoff), Criteria.where("createdAt").exists(false)));
+            legacy.fields().include("_id");
+            List<String> batch = new ArrayList<>();
+            try (Stream<Post> posts = mongoTemplate.stream(legacy, Post.class)) {
+                posts.forEach(post -> {
+                    batch.add(post.getId());
+                    if (batch.size() == 500) {
+                        addCommentCounts(batch, cutoff);
+                        batch.clear();
+                    }
+                });
+            }
+            if (!batch.isEmpty()) {
+                addCommentCounts(batch, cutoff);
+            }
+        });
+    }
+
+    private void addCommentCounts(List<String> postIds, Date cutoff) {
+        Map<String, Long> counts = commentRepo.countByPostIds(postIds, cutoff);
+        if (counts.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        counts.forEach((postId, count) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(postId)), new Update().inc("commentCount", count)));
+        bulk.execute();
     }
 }
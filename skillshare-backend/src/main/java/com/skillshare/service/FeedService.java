@@ -0,0 +1,93 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.FeedItemDto;
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.Post;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// ✅ Assembles a page of posts with authors, comment counts and the viewer's like state in one call
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private final PostService postService;
+    private final TimelineService timelineService;
+    private final UserService userService;
+    private final LikeService likeService;
+
+    public CursorPage<FeedItemDto> getFeed(String viewerId, String cursor, Integer limit) {
+        return hydrate(postService.getFeedPage(cursor, limit), viewerId);
+    }
+
+    public CursorPage<FeedItemDto> getTimeline(String userId, String cursor, Integer limit) {
+        return hydrate(timelineService.getTimeline(userId, cursor, limit), userId);
+    }
+
+    public CursorPage<FeedItemDto> getPostsByUser(String userId, String viewerId, String cursor, Integer limit) {
+        return hydrate(postService.getPostsByUser(userId, cursor, limit), viewerId);
+    }
+
+    // Two batched lookups per page (not per post), run concurrently on virtual threads
+    private CursorPage<FeedItemDto> hydrate(CursorPage<Post> page, String viewerId) {
+        List<Post> posts = page.getItems();
+        if (posts.isEmpty()) {
+            return new CursorPage<>(List.of(), page.getNextCursor());
+        }
+        List<String> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        Set<String> authorIds = posts.stream().map(Post::getUserId).collect(Collectors.toSet());
+
+        Map<String, UserDto> authors;
+        Set<String> liked;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Map<String, UserDto>> authorsFuture =
+                    supply(executor, () -> userService.getUsersByIds(authorIds));
+            CompletableFuture<Set<String>> likedFuture = viewerId == null
+                    ? CompletableFuture.completedFuture(Set.of())
+                    : supply(executor, () -> likeService.getLikedPostIds(viewerId, postIds));
+
+            authors = join(authorsFuture);
+            liked = join(likedFuture);
+        }
+
+        List<FeedItemDto> items = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            items.add(new FeedItemDto(
+                    post.getId(),
+                    post.getContent(),
+                    post.getMediaUrls(),
+                    post.getRenditions(),
+                    post.getCreatedAt(),
+                    authors.get(post.getUserId()),
+                    post.getLikeCount(),
+                    post.getCommentCount(),
+                    liked.contains(post.getId())));
+        }
+        return new CursorPage<>(items, page.getNextCursor());
+    }
+
+    private static <T> CompletableFuture<T> supply(ExecutorService executor, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    // Rethrow the lookup's own exception rather than the CompletionException wrapper
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.skillshare.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Follow;
+import com.skillshare.model.User;
+import com.skillshare.repository.FollowRepository;
+import com.skillshare.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// ✅ Follow graph stored as indexed edges in "follows" instead of sets embedded in user documents
+@Service
+@RequiredArgsConstructor
+public class FollowService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final FollowRepository followRepo;
+    private final UserRepository userRepo;
+    private final MongoTemplate mongoTemplate;
+    private final MigrationService migrationService;
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    // ✅ Upserting the edge is atomic; counters only move when the edge was actually created
+    public boolean follow(String followerId, String followeeId) {
+        if (!followRepo.upsert(followerId, followeeId)) {
+            return false;
+        }
+        userRepo.incrementFollowCounts(followerId, followeeId, 1);
+        return true;
+    }
+
+    public boolean unfollow(String followerId, String followeeId) {
+        if (followRepo.deleteByFollowerIdAndFolloweeId(followerId, followeeId) == 0) {
+            return false;
+        }
+        userRepo.incrementFollowCounts(followerId, followeeId, -1);
+        return true;
+    }
+
+    // Drops every edge of a deleted user and fixes the counters on the other end of each edge
+    public void removeUser(String userId) {
+        followRepo.forEachFollowerIdBatch(userId, 1000, followerIds -> mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(followerIds)), new Update().inc("followingCount", -1), User.class));
+        List<String> followeeIds = followRepo.findFollowingIds(userId);
+        if (!followeeIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(followeeIds)),
+                    new Update().inc("followerCount", -1), User.class);
+        }
+        followRepo.deleteByFolloweeId(userId);
+        followRepo.deleteByFollowerId(userId);
+    }
+
+    // Point lookup on the unique (followerId, followeeId) index
+    public boolean isFollowing(String followerId, String followeeId) {
+        return followRepo.existsByFollowerIdAndFolloweeId(followerId, followeeId);
+    }
+
+    public CursorPage<String> getFollowers(String userId, String cursor, Integer limit) {
+        return page(cursor, limit, (before, size) -> followRepo.findFollowers(userId, before, size), Follow::getFollowerId);
+    }
+
+    public CursorPage<String> getFollowing(String userId, String cursor, Integer limit) {
+        return page(cursor, limit, (before, size) -> followRepo.findFollowing(userId, before, size), Follow::getFolloweeId);
+    }
+
+    private CursorPage<String> page(String cursor, Integer limit,
+                                    BiFunction<PageCursor, Integer, List<Follow>> query,
+                                    Function<Follow, String> idOf) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        // Fetch one extra edge to know whether another page exists
+        List<Follow> edges = query.apply(PageCursor.decode(cursor), size + 1);
+        String nextCursor = null;
+        if (edges.size() > size) {
+            edges = edges.subList(0, size);
+            Follow last = edges.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(edges.stream().map(idOf).collect(Collectors.toList()), nextCursor);
+    }
+
+    public void forEachFollowerIdBatch(String userId, int batchSize, Consumer<List<String>> consumer) {
+        followRepo.forEachFollowerIdBatch(userId, batchSize, consumer);
+    }
+
+    public Set<String> getFollowingIds(String userId) {
+        return new HashSet<>(followRepo.findFollowingIds(userId));
+    }
+
+    // Moves users.followers / users.following sets into the follows collection, once (the legacy fields are unindexed)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateEmbeddedFollows() {
+        migrationService.runOnce("user-embedded-follows", cutoff -> {
+            Query legacy = Query.query(new Criteria().orOperator(
+                    Criteria.where("followers").exists(true), Criteria.where("following").exists(true)));
+            legacy.fields().include("followers").include("following");
+
+            // Pass 1: edges from both sides (the two sets were kept in sync only by convention); only edges this run
+            // actually inserted move the counters, since follows through the current code already $inc'd theirs
+            Set<String> migrated = new LinkedHashSet<>();
+            Map<String, Integer> followerDeltas = new HashMap<>();
+            Map<String, Integer> followingDeltas = new HashMap<>();
+            try (Stream<Document> users = mongoTemplate.stream(legacy, Document.class, "users")) {
+                users.forEach(user -> {
+                    for (Follow edge : migrateEdges(user)) {
+                        followerDeltas.merge(edge.getFolloweeId(), 1, Integer::sum);
+                        followingDeltas.merge(edge.getFollowerId(), 1, Integer::sum);
+                    }
+                    migrated.add(user.get("_id").toString());
+                });
+            }
+
+            // Pass 2: add the deltas, then drop the embedded sets (all edges are in place by now)
+            Set<String> touched = new LinkedHashSet<>(migrated);
+            touched.addAll(followerDeltas.keySet());
+            touched.addAll(followingDeltas.keySet());
+            for (String userId : touched) {
+                Update update = new Update()
+                        .inc("followerCount", followerDeltas.getOrDefault(userId, 0))
+                        .inc("followingCount", followingDeltas.getOrDefault(userId, 0));
+                if (migrated.contains(userId)) {
+                    update.unset("followers").unset("following");
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), update, User.class);
+            }
+        });
+    }
+
+    // Returns the edges actually inserted; a duplicate (the other user's set, or a follow through the current code)
+    // is skipped, any other write error fails the migration before any embedded set is dropped
+    private List<Follow> migrateEdges(Document user) {
+        String userId = user.get("_id").toString();
+        List<Follow> edges = new ArrayList<>();
+        user.getList("followers", String.class, List.of())
+                .forEach(followerId -> edges.add(new Follow(null, followerId, userId, new Date())));
+        user.getList("following", String.class, List.of())
+                .forEach(followeeId -> edges.add(new Follow(null, userId, followeeId, new Date())));
+        if (edges.isEmpty()) {
+            return edges;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+        edges.forEach(bulk::insert);
+        RuntimeException failure;
+        List<BulkWriteError> errors;
+        try {
+            bulk.execute();
+            return edges;
+        } catch (BulkOperationException e) {
+            failure = e;
+            errors = e.getErrors();
+        } catch (MongoBulkWriteException e) {
+            failure = e;
+            errors = e.getWriteErrors();
+        }
+        Set<Integer> duplicates = new HashSet<>();
+        for (BulkWriteError error : errors) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                throw failure;
+            }
+            duplicates.add(error.getIndex());
+        }
+        List<Follow> inserted = new ArrayList<>();
+        for (int i = 0; i < edges.size(); i++) {
+            if (!duplicates.contains(i)) {
+                inserted.add(edges.get(i));
+            }
+        }
+        return inserted;
+    }
+}
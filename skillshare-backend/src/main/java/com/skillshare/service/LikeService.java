@@ -1,44 +1,125 @@
 package com.skillshare.service;
 
-import com.skillshare.dto.LikeRequest;
-import com.skillshare.model.Post;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.skillshare.model.PostLike;
+import com.skillshare.repository.LikeRepository;
 import com.skillshare.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class LikeService {
 
+    private final LikeRepository likeRepo;
     private final PostRepository postRepo;
+    private final MongoTemplate mongoTemplate;
+    private final MigrationService migrationService;
 
-    // ✅ Like a post
+    private static final int DUPLICATE_KEY = 11000;
+
+    // ✅ Like a post: the unique (postId, userId) index makes a repeated like a no-op
     public boolean likePost(String postId, String userId) {
-        Optional<Post> optional = postRepo.findById(postId);
-        if (optional.isPresent()) {
-            Post post = optional.get();
-            if (!post.getLikedUserIds().contains(userId)) {
-                post.getLikedUserIds().add(userId);
-                postRepo.save(post);
-                return true;
-            }
+        try {
+            likeRepo.insert(new PostLike(null, postId, userId, new Date()));
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        if (!postRepo.incrementLikeCount(postId, 1)) {
+            // Post does not exist (or was deleted meanwhile) – don't leave an orphan like behind
+            likeRepo.deleteByPostIdAndUserId(postId, userId);
+            return false;
         }
-        return false;
+        return true;
     }
 
     // ✅ Unlike a post
     public boolean unlikePost(String postId, String userId) {
-        Optional<Post> optional = postRepo.findById(postId);
-        if (optional.isPresent()) {
-            Post post = optional.get();
-            if (post.getLikedUserIds().contains(userId)) {
-                post.getLikedUserIds().remove(userId);
-                postRepo.save(post);
-                return true;
+        if (likeRepo.deleteByPostIdAndUserId(postId, userId) == 0) {
+            return false;
+        }
+        postRepo.incrementLikeCount(postId, -1);
+        return true;
+    }
+
+    // ✅ Which of these posts has the viewer liked? One indexed query for a whole feed page
+    public Set<String> getLikedPostIds(String userId, Collection<String> postIds) {
+        if (userId == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+        return likeRepo.findByUserIdAndPostIdIn(userId, postIds).stream()
+                .map(PostLike::getPostId)
+                .collect(Collectors.toSet());
+    }
+
+    public void deleteLikesForPost(String postId) {
+        likeRepo.deleteByPostId(postId);
+    }
+
+    // Moves likes still embedded in posts.likedUserIds into the likes collection, once (the legacy field is unindexed)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateEmbeddedLikes() {
+        migrationService.runOnce("post-embedded-likes", cutoff -> {
+            Query legacy = Query.query(Criteria.where("likedUserIds").exists(true));
+            legacy.fields().include("likedUserIds");
+            try (Stream<Document> posts = mongoTemplate.stream(legacy, Document.class, "posts")) {
+                posts.forEach(this::migratePost);
+            }
+        });
+    }
+
+    private void migratePost(Document post) {
+        String postId = post.getObjectId("_id").toHexString();
+        List<String> userIds = post.getList("likedUserIds", String.class, List.of());
+
+        int inserted = 0;
+        if (!userIds.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostLike.class);
+            userIds.forEach(userId -> bulk.insert(new PostLike(null, postId, userId, new Date())));
+            inserted = insertIgnoringDuplicates(bulk);
+        }
+
+        // Live likes/unlikes already $inc likeCount, so add only the rows this migration created instead of
+        // overwriting it with a count; the guard applies the delta once, together with dropping the legacy field
+        Query stillLegacy = Query.query(Criteria.where("_id").is(post.get("_id")).and("likedUserIds").exists(true));
+        Update update = new Update().inc("likeCount", inserted).unset("likedUserIds");
+        mongoTemplate.updateFirst(stillLegacy, update, "posts");
+    }
+
+    // A duplicate means the user liked the post again through the new code path (already counted); anything
+    // else fails the migration before the legacy field is dropped
+    private int insertIgnoringDuplicates(BulkOperations bulk) {
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            return e.getResult().getInsertedCount();
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
             }
+            return e.getWriteResult().getInsertedCount();
         }
-        return false;
     }
 }
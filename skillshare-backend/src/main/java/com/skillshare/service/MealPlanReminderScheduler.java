@@ -0,0 +1,217 @@
+package com.skillshare.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.skillshare.model.MealPlan;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+// ✅ Meal plan deadline reminders: only the next horizon window lives in a DelayQueue, loaded by an indexed range query
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MealPlanReminderScheduler {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+
+    // How long before the deadline the reminder fires
+    @Value("${mealplans.reminder.lead-minutes:1440}")
+    private long leadMinutes;
+
+    // Reminders due within this window are held in memory; the window is reloaded every half horizon
+    @Value("${mealplans.reminder.horizon-minutes:60}")
+    private long horizonMinutes;
+
+    // Zone for deadlines written without an offset ("2025-06-01", "2025-06-01T18:00"); empty = server zone
+    @Value("${mealplans.deadline-zone:}")
+    private String deadlineZone;
+
+    private record Reminder(String planId, String userId, String title, long fireAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAt, ((Reminder) other).fireAt);
+        }
+    }
+
+    private final DelayQueue<Reminder> queue = new DelayQueue<>();
+    // planId -> current reminder; queue entries that no longer match were rescheduled or cancelled and are skipped
+    private final Map<String, Reminder> pending = new ConcurrentHashMap<>();
+
+    // Reminders firing before this instant are in the queue; later ones are picked up by a future window load
+    private volatile long horizonEnd;
+
+    private ScheduledExecutorService loader;
+    private Thread worker;
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        backfillDeadlines();
+        running = true;
+        worker = Thread.ofPlatform().name("mealplan-reminders").daemon(true).start(this::fireLoop);
+        long periodMs = Math.max(1000, TimeUnit.MINUTES.toMillis(horizonMinutes) / 2);
+        loader = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("mealplan-reminder-loader").daemon(true).factory());
+        loader.scheduleWithFixedDelay(this::loadWindow, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // ---------- called by MealPlanService ----------
+
+    // Lenient: ISO instant / offset date-time, local date-time, or plain date (= end of that day); null if unparseable
+    public Date parseDeadline(String deadline) {
+        if (deadline == null || deadline.isBlank()) {
+            return null;
+        }
+        String text = deadline.trim();
+        ZoneId zone = zone();
+        try {
+            return Date.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return Date.from(LocalDateTime.parse(text).atZone(zone).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return Date.from(LocalDate.parse(text).atTime(LocalTime.MAX).atZone(zone).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        return null;
+    }
+
+    // Lead time before the deadline, or right away if that moment has already passed; null once the deadline is over
+    public Date reminderFor(Date deadlineAt) {
+        long now = System.currentTimeMillis();
+        if (deadlineAt == null || deadlineAt.getTime() <= now) {
+            return null;
+        }
+        return new Date(Math.max(now, deadlineAt.getTime() - TimeUnit.MINUTES.toMillis(leadMinutes)));
+    }
+
+    // After a plan is created or its deadline changed
+    public void schedule(MealPlan plan) {
+        if (plan.getReminderAt() == null || plan.getReminderAt().getTime() >= horizonEnd) {
+            cancel(plan.getId());   // no reminder, or a later window load will pick it up
+            return;
+        }
+        enqueue(new Reminder(plan.getId(), plan.getUserId(), plan.getTitle(), plan.getReminderAt().getTime()));
+    }
+
+    // Sets the reminder for a changed deadline; guarded on deadlineAt so a concurrent edit's deadline wins
+    public Date rearm(String planId, Date deadlineAt) {
+        Date reminderAt = reminderFor(deadlineAt);
+        Update update = reminderAt != null ? new Update().set("reminderAt", reminderAt) : new Update().unset("reminderAt");
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(planId).and("deadlineAt").is(deadlineAt)),
+                update, MealPlan.class);
+        return reminderAt;
+    }
+
+    public void cancel(String planId) {
+        pending.remove(planId);   // its queue entry becomes stale and is skipped when it expires
+    }
+
+    // ---------- internals ----------
+
+    private void enqueue(Reminder reminder) {
+        if (!reminder.equals(pending.put(reminder.planId(), reminder))) {
+            queue.put(reminder);
+        }
+    }
+
+    // Index range scan over reminderAt; sent reminders have the field removed, so the scan never grows with history
+    private void loadWindow() {
+        try {
+            long until = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(horizonMinutes);
+            // Advance first: plans saved while the query runs are enqueued by schedule() instead of being missed
+            horizonEnd = until;
+            Query query = Query.query(Criteria.where("reminderAt").lt(new Date(until)));
+            query.fields().include("userId").include("title").include("reminderAt");
+            try (Stream<MealPlan> plans = mongoTemplate.stream(query, MealPlan.class)) {
+                plans.forEach(plan -> enqueue(new Reminder(
+                        plan.getId(), plan.getUserId(), plan.getTitle(), plan.getReminderAt().getTime())));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load meal plan reminders: {}", e.getMessage());
+        }
+    }
+
+    private void fireLoop() {
+        while (running) {
+            try {
+                fire(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to send meal plan reminder: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void fire(Reminder reminder) {
+        if (!pending.remove(reminder.planId(), reminder)) {
+            return;   // rescheduled or cancelled since it was queued
+        }
+        // Claim it: only succeeds while the plan still has exactly this reminder (not edited, deleted or already sent)
+        UpdateResult claimed = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(reminder.planId()).and("reminderAt").is(new Date(reminder.fireAt()))),
+                new Update().unset("reminderAt"), MealPlan.class);
+        if (claimed.getModifiedCount() == 0) {
+            return;
+        }
+        notificationService.sendNotification(reminder.userId(), reminder.userId(), "deadline", null,
+                "⏰ Your meal plan \"" + reminder.title() + "\" is due soon.");
+    }
+
+    // Parses string deadlines of plans created before deadlineAt existed (unparseable ones get null and are not retried)
+    private void backfillDeadlines() {
+        Query legacy = Query.query(Criteria.where("deadline").exists(true).and("deadlineAt").exists(false));
+        legacy.fields().include("deadline");
+        try (Stream<MealPlan> plans = mongoTemplate.stream(legacy, MealPlan.class)) {
+            plans.forEach(plan -> {
+                Date deadlineAt = parseDeadline(plan.getDeadline());
+                Date reminderAt = reminderFor(deadlineAt);
+                Update update = new Update().set("deadlineAt", deadlineAt);
+                if (reminderAt != null) {
+                    update.set("reminderAt", reminderAt);
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(plan.getId())), update, MealPlan.class);
+            });
+        }
+    }
+
+    private ZoneId zone() {
+        return deadlineZone == null || deadlineZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(deadlineZone);
+    }
+}
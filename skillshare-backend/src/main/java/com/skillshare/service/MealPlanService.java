@@ -1,20 +1,50 @@
 package com.skillshare.service;
 
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
 import com.skillshare.model.MealPlan;
+import com.skillshare.model.TopicCount;
 import com.skillshare.repository.MealPlanRepository;
+import com.skillshare.repository.TopicCountRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class MealPlanService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_TOP_TOPICS = 20;
+    public static final int MAX_TOP_TOPICS = 100;
+
     private final MealPlanRepository mealPlanRepo;
+    private final TopicCountRepository topicCountRepo;
+    private final SearchService searchService;
+    private final MongoTemplate mongoTemplate;
+    private final MealPlanReminderScheduler reminderScheduler;
+    private final MigrationService migrationService;
 
     public MealPlan createPlan(MealPlan plan) {
-        return mealPlanRepo.save(plan);
+        plan.setTopics(normalizeTopics(plan.getTopics()));
+        plan.setDeadlineAt(reminderScheduler.parseDeadline(plan.getDeadline()));
+        plan.setReminderAt(reminderScheduler.reminderFor(plan.getDeadlineAt()));
+        MealPlan saved = mealPlanRepo.save(plan);
+        topicCountRepo.applyDeltas(topicDeltas(List.of(), saved.getTopics()));
+        searchService.indexMealPlan(saved);   // ✅ Searchable by title, description and topics
+        reminderScheduler.schedule(saved);    // ✅ Reminder before the deadline
+        return saved;
     }
 
     public List<MealPlan> getAllPlans() {
@@ -29,17 +59,104 @@ public class MealPlanService {
         return mealPlanRepo.findById(id);
     }
 
+    // ✅ Plans tagged with a topic, newest first; cursor = last id of the previous page
+    public CursorPage<MealPlan> getPlansByTopic(String topic, String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        String beforeId = cursor == null || cursor.isBlank() ? null : cursor;
+        if (beforeId != null && !ObjectId.isValid(beforeId)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // Fetch one extra row to know whether another page exists
+        List<MealPlan> plans = mealPlanRepo.findByTopicPage(normalizeTopic(topic), beforeId, size + 1);
+        String nextCursor = null;
+        if (plans.size() > size) {
+            plans = plans.subList(0, size);
+            nextCursor = plans.get(size - 1).getId();
+        }
+        return new CursorPage<>(plans, nextCursor);
+    }
+
+    // ✅ Facet counts straight from the counter table
+    public List<TopicCount> getTopTopics(Integer limit) {
+        return topicCountRepo.findTop(PageCursor.clampLimit(limit, DEFAULT_TOP_TOPICS, MAX_TOP_TOPICS));
+    }
+
+    // Find-and-modify hands back the previous topics atomically, so concurrent edits never skew the counts
     public Optional<MealPlan> updatePlan(String id, MealPlan updated) {
-        return mealPlanRepo.findById(id).map(plan -> {
-            plan.setTitle(updated.getTitle());
-            plan.setDescription(updated.getDescription());
-            plan.setTopics(updated.getTopics());
-            plan.setDeadline(updated.getDeadline());
-            return mealPlanRepo.save(plan);
+        List<String> topics = normalizeTopics(updated.getTopics());
+        Date deadlineAt = reminderScheduler.parseDeadline(updated.getDeadline());
+        Update update = new Update()
+                .set("title", updated.getTitle())
+                .set("description", updated.getDescription())
+                .set("topics", topics)
+                .set("deadline", updated.getDeadline())
+                .set("deadlineAt", deadlineAt);
+        return mealPlanRepo.updateAndGetPrevious(id, update).map(previous -> {
+            topicCountRepo.applyDeltas(topicDeltas(previous.getTopics(), topics));
+            // Only a new deadline re-arms the reminder; other edits keep it pending (or already sent)
+            Date reminderAt = Objects.equals(previous.getDeadlineAt(), deadlineAt)
+                    ? previous.getReminderAt()
+                    : reminderScheduler.rearm(id, deadlineAt);
+            MealPlan saved = new MealPlan(previous.getId(), previous.getUserId(), updated.getTitle(),
+                    updated.getDescription(), topics, updated.getDeadline(), deadlineAt, reminderAt);
+            searchService.indexMealPlan(saved);
+            reminderScheduler.schedule(saved);   // replaces the queued entry (new time or title)
+            return saved;
         });
     }
 
     public void deletePlan(String id) {
-        mealPlanRepo.deleteById(id);
+        mealPlanRepo.removeById(id).ifPresent(removed ->
+                topicCountRepo.applyDeltas(topicDeltas(removed.getTopics(), List.of())));
+        searchService.deleteMealPlan(id);
+        reminderScheduler.cancel(id);
+    }
+
+    // Counts (and normalizes) the topics of plans created before topic_counts existed, once. Plans created after the
+    // cutoff already applied their own deltas, so they are excluded by their _id timestamp.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTopicCounts() {
+        migrationService.runOnce("mealplan-topic-counts", cutoff -> {
+            Map<String, Long> counts = new HashMap<>();
+            Query query = Query.query(Criteria.where("topics").exists(true)
+                    .and("_id").lt(ObjectId.getSmallestWithDate(cutoff)));
+            query.fields().include("topics");
+            try (Stream<MealPlan> plans = mongoTemplate.stream(query, MealPlan.class)) {
+                plans.forEach(plan -> {
+                    List<String> topics = normalizeTopics(plan.getTopics());
+                    if (!topics.equals(plan.getTopics())) {
+                        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(plan.getId())),
+                                new Update().set("topics", topics), MealPlan.class);
+                    }
+                    topics.forEach(topic -> counts.merge(topic, 1L, Long::sum));
+                });
+            }
+            topicCountRepo.applyDeltas(counts);
+        });
+    }
+
+    private static Map<String, Long> topicDeltas(List<String> before, List<String> after) {
+        Set<String> old = before == null ? Set.of() : new HashSet<>(before);
+        Set<String> now = after == null ? Set.of() : new HashSet<>(after);
+        Map<String, Long> deltas = new HashMap<>();
+        now.stream().filter(topic -> !old.contains(topic)).forEach(topic -> deltas.put(topic, 1L));
+        old.stream().filter(topic -> !now.contains(topic)).forEach(topic -> deltas.put(topic, -1L));
+        return deltas;
+    }
+
+    // "  Keto ", "keto" -> "keto": one facet per topic regardless of spelling case
+    private static List<String> normalizeTopics(List<String> topics) {
+        if (topics == null) {
+            return new ArrayList<>();
+        }
+        return topics.stream()
+                .map(MealPlanService::normalizeTopic)
+                .filter(topic -> !topic.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static String normalizeTopic(String topic) {
+        return topic == null ? "" : topic.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,246 @@
+package com.skillshare.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ✅ Serves uploaded media with zero-copy transfer, byte ranges, content-hash ETags and immutable caching
+@Slf4j
+@Service
+public class MediaDeliveryService {
+
+    private static final Path ROOT = Paths.get("uploads").toAbsolutePath().normalize();
+    private static final Path TMP = ROOT.resolve(".tmp");
+
+    // <sha256>.<ext> originals and <sha256>_w<width>.jpg renditions: the name already is the content hash
+    private static final Pattern CONTENT_NAME = Pattern.compile("^([0-9a-f]{64}(?:_w\\d+)?)\\.[a-z0-9]{1,5}$");
+
+    // File names never get new content (content-addressed or UUID-prefixed), so caches may keep them forever
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // ?w= answered with the original because the rendition is not generated yet: revalidate (cheap 304 via the
+    // ETag) on every use, so the rendition replaces it as soon as it exists instead of the original being pinned
+    private static final String CACHE_CONTROL_FALLBACK = "no-cache";
+
+    // Tomcat NIO sendfile: the connector streams the file from the page cache straight to the socket
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder renditionFallbacks = new LongAdder();
+    private final LongAdder rangeNotSatisfiable = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    // exact = the file is the final answer for this URL (false while a requested rendition is still missing)
+    private record Resolved(Path file, boolean exact) {
+    }
+
+    record ByteRange(long start, long end) {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    public void serve(String path, Integer width, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        hits.increment();
+        Resolved resolved = resolve(path, width);
+        if (resolved == null) {
+            notFound.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = resolved.file();
+        if (!resolved.exact()) {
+            renditionFallbacks.increment();
+        }
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attrs.size();
+        String etag = etagFor(file, attrs);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, resolved.exact() ? CACHE_CONTROL : CACHE_CONTROL_FALLBACK);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        ByteRange range = new ByteRange(0, size - 1);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range with a stale validator means "send me the whole thing"
+        if (rangeHeader != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            ByteRange requested = parseRange(rangeHeader, size);
+            if (requested == ByteRange.UNSATISFIABLE) {
+                rangeNotSatisfiable.increment();
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (requested != null) {
+                range = requested;
+                partial.increment();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+            }
+        }
+
+        long length = Math.max(0, range.length());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);   // exclusive
+            sendfile.increment();
+        } else {
+            transfer(file, range.start(), length, response);
+        }
+        bytesServed.add(length);
+    }
+
+    // Only files inside uploads/ (never the in-flight .tmp area); ?w= picks a rendition when one exists
+    private static Resolved resolve(String path, Integer width) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        Path file = ROOT.resolve(path).normalize();
+        if (!file.startsWith(ROOT) || file.startsWith(TMP)) {
+            return null;
+        }
+        OptionalInt renditionWidth = width != null && width > 0 ? RenditionService.widthFor(width) : OptionalInt.empty();
+        if (renditionWidth.isPresent()) {
+            Path rendition = ROOT.resolve(RenditionService.renditionName(path, renditionWidth.getAsInt())).normalize();
+            if (rendition.startsWith(ROOT) && Files.isRegularFile(rendition)) {
+                return new Resolved(rendition, true);
+            }
+        }
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        // Wider than every rendition width: the original is the permanent answer
+        return new Resolved(file, renditionWidth.isEmpty());
+    }
+
+    private static String etagFor(Path file, BasicFileAttributes attrs) {
+        Matcher matcher = CONTENT_NAME.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+            return "\"" + matcher.group(1) + "\"";
+        }
+        // Legacy UUID_name uploads carry no hash in their name; size + mtime avoids re-reading the file
+        return "W/\"" + Long.toHexString(attrs.size()) + "-" + Long.toHexString(attrs.lastModifiedTime().toMillis()) + "\"";
+    }
+
+    // If-None-Match uses the weak comparison: W/ prefixes are ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String target = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // Single "bytes=a-b", "bytes=a-" or "bytes=-n"; null means ignore the header and send the full body
+    static ByteRange parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            if (start >= size) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Fallback when the connector cannot sendfile (e.g. TLS): transferTo still avoids a user-space copy loop
+    private static void transfer(Path file, long position, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("notModified", notModified.sum());
+        stats.put("partial", partial.sum());
+        stats.put("notFound", notFound.sum());
+        stats.put("renditionFallbacks", renditionFallbacks.sum());
+        stats.put("rangeNotSatisfiable", rangeNotSatisfiable.sum());
+        stats.put("sendfile", sendfile.sum());
+        stats.put("bytesServed", bytesServed.sum());
+        return stats;
+    }
+}
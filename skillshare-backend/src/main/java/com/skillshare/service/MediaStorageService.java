@@ -0,0 +1,160 @@
+package com.skillshare.service;
+
+import com.skillshare.model.MediaObject;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// ✅ Content-addressed media store: uploads are streamed to disk in fixed-size chunks, keyed by SHA-256,
+// sharded as ab/cd/<hash>.<ext>, stored once however many posts use them, and deleted with the last reference
+@Service
+@RequiredArgsConstructor
+public class MediaStorageService {
+
+    private static final String UPLOAD_DIR = "uploads/";
+    private static final long CHUNK_SIZE = 256 * 1024;
+    private static final Pattern CONTENT_PATH = Pattern.compile("^[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})(\\.[a-z0-9]{1,5})?$");
+    private static final Pattern EXTENSION = Pattern.compile("\\.([A-Za-z0-9]{1,5})$");
+
+    private final MongoTemplate mongoTemplate;
+
+    // Serializes store/release of the same hash inside this process (file move vs. last-reference delete)
+    private final Object[] locks = createLocks(64);
+
+    public record StoredMedia(String fileName, String sha256, long size) {
+    }
+
+    public StoredMedia store(MultipartFile file) throws IOException {
+        Path root = Paths.get(UPLOAD_DIR);
+        Path tmpDir = root.resolve(".tmp");
+        Files.createDirectories(tmpDir);
+
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            // Hash while copying: the bytes are read exactly once
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, CHUNK_SIZE)) > 0) {
+                    size += transferred;
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String path = contentPath(sha256, file.getOriginalFilename());
+
+            synchronized (lockFor(sha256)) {
+                MediaObject media = mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(sha256)),
+                        new Update().inc("refCount", 1)
+                                .setOnInsert("path", path)
+                                .setOnInsert("size", size)
+                                .setOnInsert("createdAt", new Date()),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        MediaObject.class);
+
+                Path stored = root.resolve(media.getPath());
+                if (!Files.exists(stored)) {
+                    Files.createDirectories(stored.getParent());
+                    // Readers never observe a half-written file under its final name
+                    Files.move(tmp, stored, StandardCopyOption.ATOMIC_MOVE);
+                }
+                // Otherwise identical content is already stored and the temp copy is discarded below
+                return new StoredMedia(media.getPath(), sha256, size);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // ✅ Drops one reference; the file goes away only when no post uses it any more
+    public void release(String mediaUrl) {
+        Matcher matcher = CONTENT_PATH.matcher(mediaUrl);
+        if (!matcher.matches()) {
+            deleteWithRenditions(mediaUrl);   // legacy UUID_name upload, never shared
+            return;
+        }
+        String sha256 = matcher.group(1);
+        synchronized (lockFor(sha256)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(sha256)),
+                    new Update().inc("refCount", -1), MediaObject.class);
+            MediaObject orphan = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("_id").is(sha256).and("refCount").lte(0)), MediaObject.class);
+            if (orphan != null) {
+                deleteWithRenditions(orphan.getPath());
+            }
+        }
+    }
+
+    private void deleteWithRenditions(String fileName) {
+        delete(fileName);
+        for (int width : RenditionService.WIDTHS) {
+            delete(RenditionService.renditionName(fileName, width));
+        }
+    }
+
+    private void delete(String fileName) {
+        Path root = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
+        Path path = root.resolve(fileName).normalize();
+        if (!path.startsWith(root)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {}
+    }
+
+    private static String contentPath(String sha256, String originalFilename) {
+        String extension = "";
+        if (originalFilename != null) {
+            Matcher matcher = EXTENSION.matcher(originalFilename);
+            if (matcher.find()) {
+                extension = "." + matcher.group(1).toLowerCase(Locale.ROOT);
+            }
+        }
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    private Object lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), locks.length)];
+    }
+
+    private static Object[] createLocks(int count) {
+        Object[] locks = new Object[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.skillshare.service;
+
+import com.skillshare.repository.MigrationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+// ✅ Runs startup data migrations exactly once across restarts and instances, gated on a marker document
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MigrationService {
+
+    private final MigrationRepository migrationRepo;
+
+    // Captured while the context is being built, i.e. before the web server accepts requests: every write at or
+    // after this instant already went through the current code (and maintains its own counters)
+    private final Date startedAt = new Date();
+
+    // The task gets the cutoff (startup time): it migrates data written before it and must not touch newer writes.
+    // A failed run keeps its marker (no completedAt) and is not retried automatically, because most migrations
+    // apply $inc deltas; delete the marker to run it again.
+    public void runOnce(String name, Consumer<Date> task) {
+        if (!migrationRepo.claim(name, startedAt)) {
+            return;
+        }
+        log.info("Running migration {} (cutoff {})", name, startedAt.toInstant());
+        try {
+            task.accept(startedAt);
+            migrationRepo.complete(name);
+            log.info("Migration {} completed", name);
+        } catch (RuntimeException e) {
+            log.error("Migration {} failed; delete its marker in 'migrations' to retry", name, e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.skillshare.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.UpdateResult;
+import com.skillshare.model.Notification;
+import com.skillshare.repository.NotificationCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// ✅ Bounded in-process queue that persists notifications in batches on a background thread
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationCounterRepository counterRepo;
+    private final NotificationStreamService streamService;
+
+    @Value("${notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notifications.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${notifications.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // Like/comment notifications for the same (receiver, type, post) inside this window are merged into one
+    @Value("${notifications.coalesce-window-ms:3600000}")
+    private long coalesceWindowMs;
+
+    @Value("${notifications.recent-senders:5}")
+    private int recentSenders;
+
+    private static final Set<String> COALESCED_TYPES = Set.of("like", "comment");
+    private static final String COALESCE_INDEX = "coalesce_key";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private BlockingQueue<Notification> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        ensureCoalesceIndex();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = Thread.ofPlatform().name("notification-writer").daemon(true).start(this::drainLoop);
+    }
+
+    // Never blocks the caller on Mongo unless the queue is full (backpressure: write inline instead of dropping)
+    public void submit(Notification notification) {
+        if (running && queue.offer(notification)) {
+            enqueued.increment();
+            return;
+        }
+        overflowed.increment();
+        persist(List.of(notification));
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Notification> batch) {
+        try {
+            List<Notification> inserts = new ArrayList<>();
+            Map<List<Object>, List<Notification>> groups = new LinkedHashMap<>();
+            for (Notification n : batch) {
+                if (coalesceWindowMs > 0 && n.getPostId() != null && COALESCED_TYPES.contains(n.getType())) {
+                    Date windowStart = new Date(n.getCreatedAt().getTime() / coalesceWindowMs * coalesceWindowMs);
+                    n.setWindowStart(windowStart);
+                    groups.computeIfAbsent(List.of(n.getUserId(), n.getType(), n.getPostId(), windowStart),
+                            k -> new ArrayList<>()).add(n);
+                } else {
+                    inserts.add(n);
+                }
+            }
+            // Only brand-new documents raise the unread counter; merges land in an already-unread one
+            Map<String, Long> unreadDeltas = new HashMap<>();
+            if (!inserts.isEmpty()) {
+                mongoTemplate.insertAll(inserts);
+                inserts.forEach(n -> unreadDeltas.merge(n.getUserId(), 1L, Long::sum));
+            }
+            if (!groups.isEmpty()) {
+                upsertCoalesced(new ArrayList<>(groups.values()))
+                        .forEach(userId -> unreadDeltas.merge(userId, 1L, Long::sum));
+            }
+            counterRepo.incrementUnread(unreadDeltas);
+
+            // ✅ Push to connected SSE clients once the data is durable
+            inserts.forEach(streamService::publish);
+            groups.values().forEach(group -> streamService.publishCoalesced(group.get(group.size() - 1)));
+            persisted.add(batch.size());
+            batches.increment();
+        } catch (DataAccessException e) {
+            failed.add(batch.size());
+            log.warn("Failed to persist {} notifications: {}", batch.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            // Anything else (a bug, a bad document) fails this batch only; the writer thread keeps draining
+            failed.add(batch.size());
+            log.error("Failed to persist {} notifications", batch.size(), e);
+        }
+    }
+
+    // One upsert per (receiver, type, post, window), after merging the group in memory first.
+    // Returns the receivers for which a new document was created.
+    private List<String> upsertCoalesced(List<List<Notification>> groups) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        int events = 0;
+        for (List<Notification> group : groups) {
+            bulk.upsert(coalesceQuery(group), coalesceUpdate(group));
+            events += group.size();
+        }
+
+        BulkWriteResult result;
+        List<List<Notification>> raced = new ArrayList<>();
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            // Another writer (the inline overflow path, another instance) inserted the same key between our match
+            // and our insert; the unique index rejected the duplicate. Retried below, the upsert now matches it.
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                raced.add(groups.get(error.getIndex()));
+            }
+            result = e.getResult();
+        }
+
+        List<String> created = new ArrayList<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            created.add(groups.get(upsert.getIndex()).get(0).getUserId());
+        }
+        for (List<Notification> group : raced) {
+            UpdateResult retried = mongoTemplate.upsert(coalesceQuery(group), coalesceUpdate(group), Notification.class);
+            if (retried.getUpsertedId() != null) {
+                created.add(group.get(0).getUserId());
+            }
+        }
+        // Everything that did not create a new document was merged into an existing one
+        coalesced.add(events - created.size());
+        return created;
+    }
+
+    private static Query coalesceQuery(List<Notification> group) {
+        Notification latest = group.get(group.size() - 1);
+        return Query.query(Criteria.where("userId").is(latest.getUserId())
+                .and("type").is(latest.getType())
+                .and("postId").is(latest.getPostId())
+                .and("windowStart").is(latest.getWindowStart())
+                .and("read").is(false));
+    }
+
+    private Update coalesceUpdate(List<Notification> group) {
+        Notification latest = group.get(group.size() - 1);
+        Update update = new Update()
+                .set("senderId", latest.getSenderId())
+                .set("message", latest.getMessage())
+                .set("createdAt", latest.getCreatedAt())
+                .inc("actorCount", group.size());
+        update.push("recentSenderIds")
+                .slice(-recentSenders)
+                .each(group.stream().map(Notification::getSenderId).toArray());
+        return update;
+    }
+
+    // At most one unread coalesced notification per (receiver, type, post, window): concurrent upserts of the same
+    // key then merge instead of both inserting. Replaces the earlier non-unique index of the same name.
+    private void ensureCoalesceIndex() {
+        IndexOperations indexes = mongoTemplate.indexOps(Notification.class);
+        indexes.getIndexInfo().stream()
+                .filter(index -> index.getName().equals(COALESCE_INDEX) && !index.isUnique())
+                .findFirst()
+                .ifPresent(index -> indexes.dropIndex(COALESCE_INDEX));
+        indexes.ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .on("postId", Sort.Direction.ASC)
+                .on("windowStart", Sort.Direction.ASC)
+                .unique()
+                .partial(PartialIndexFilter.of(Criteria.where("read").is(false).and("windowStart").exists(true)))
+                .named(COALESCE_INDEX));
+    }
+
+    // Stop accepting work, let the worker drain what is queued, then flush any leftovers inline
+    @PreDestroy
+    void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+        }
+        List<Notification> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            persist(rest);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueued", enqueued.sum());
+        stats.put("persisted", persisted.sum());
+        stats.put("batches", batches.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("overflowedToCaller", overflowed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("streamConnections", streamService.getConnectionCount());
+        return stats;
+    }
+}
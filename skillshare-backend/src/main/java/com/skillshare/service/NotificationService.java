@@ -1,19 +1,40 @@
 package com.skillshare.service;
 
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
 import com.skillshare.model.Notification;
+import com.skillshare.model.NotificationCounter;
+import com.skillshare.repository.NotificationCounterRepository;
 import com.skillshare.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
     private final NotificationRepository notificationRepo;
+    private final NotificationCounterRepository counterRepo;
+    private final NotificationDispatcher dispatcher;
+    private final MigrationService migrationService;
+    private final MongoTemplate mongoTemplate;
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // ✅ Returns immediately; the notification is persisted in the next background batch
     public Notification sendNotification(String userId, String senderId, String type, String postId, String message) {
         Notification notification = Notification.builder()
                 .userId(userId)
@@ -22,15 +43,73 @@ public class NotificationService {
                 .postId(postId)
                 .message(message)
                 .createdAt(new Date())
+                .actorCount(1)
+                .recentSenderIds(new ArrayList<>(List.of(senderId)))
                 .build();
-        return notificationRepo.save(notification);
+        dispatcher.submit(notification);
+        return notification;
+    }
+
+    // ✅ Newest-first page over the (userId, createdAt, _id) index
+    public CursorPage<Notification> getNotificationsForUser(String userId, String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        List<Notification> page = notificationRepo.findPage(userId, PageCursor.decode(cursor), size + 1);
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            Notification last = page.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(page, nextCursor);
     }
 
-    public List<Notification> getNotificationsForUser(String userId) {
-        return notificationRepo.findByUserIdOrderByCreatedAtDesc(userId);
+    // ✅ O(1): a single _id lookup on the maintained counter
+    public long getUnreadCount(String userId) {
+        return counterRepo.findById(userId)
+                .map(NotificationCounter::getUnread)
+                .map(unread -> Math.max(0L, unread))
+                .orElse(0L);
     }
 
+    public boolean markRead(String id) {
+        Notification updated = notificationRepo.markRead(id);
+        if (updated == null) {
+            return false;
+        }
+        counterRepo.incrementUnread(Map.of(updated.getUserId(), -1L));
+        return true;
+    }
+
+    public long markAllRead(String userId) {
+        long changed = notificationRepo.markAllRead(userId);
+        counterRepo.resetUnread(userId);
+        return changed;
+    }
+
+    // Find-and-remove: of two concurrent deletes only one gets the document back and decrements the counter
     public void deleteNotification(String id) {
-        notificationRepo.deleteById(id);
+        notificationRepo.removeById(id)
+                .filter(notification -> !notification.isRead())
+                .ifPresent(notification -> counterRepo.incrementUnread(Map.of(notification.getUserId(), -1L)));
+    }
+
+    // The old TTL on createdAt also expired unread notifications without touching the counter: drop it and give
+    // already-read notifications a readAt (their createdAt), so they still expire under the new readAt TTL
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateReadTtl() {
+        migrationService.runOnce("notification-read-ttl", cutoff -> {
+            IndexOperations indexes = mongoTemplate.indexOps(Notification.class);
+            if (indexes.getIndexInfo().stream().anyMatch(index -> index.getName().equals("createdAt_ttl"))) {
+                indexes.dropIndex("createdAt_ttl");
+            }
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("read").is(true).and("readAt").exists(false)),
+                    AggregationUpdate.update().set("readAt").toValueOf("createdAt"),
+                    Notification.class);
+        });
+    }
+
+    public Map<String, Object> getQueueStats() {
+        return dispatcher.stats();
     }
 }
@@ -0,0 +1,245 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Notification;
+import com.skillshare.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// ✅ Server-Sent Events push channel for new notifications
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationStreamService {
+
+    private final NotificationRepository notificationRepo;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${notifications.stream.heartbeat-ms:20000}")
+    private long heartbeatMs;
+
+    @Value("${notifications.stream.replay-limit:100}")
+    private int replayLimit;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Sends run on virtual threads so one slow client never stalls the notification writer
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeat;
+
+    private enum Kind { NOTIFICATION, COALESCED, HEARTBEAT }
+
+    private record Event(Kind kind, Notification notification) {
+        static final Event HEARTBEAT = new Event(Kind.HEARTBEAT, null);
+    }
+
+    // One per connection. Replay, live events and heartbeats all go through its queue and are written by at most one
+    // task at a time, so the client sees the replay first and live events in publish order. Otherwise a client could
+    // get a newer event before an older one, disconnect, and skip the older one when resuming with Last-Event-ID.
+    private final class Subscriber {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        // Only touched by the draining task (the draining flag orders successive tasks)
+        private PageCursor replayFrom;
+        private final Map<String, Date> replayed = new HashMap<>();   // id -> createdAt sent by the replay
+
+        Subscriber(String userId, SseEmitter emitter, PageCursor replayFrom) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.replayFrom = replayFrom;
+        }
+
+        void enqueue(Event event) {
+            pending.add(event);
+            schedule();
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    if (!replay()) {
+                        return;
+                    }
+                    Event event;
+                    while ((event = pending.poll()) != null) {
+                        if (!deliver(event)) {
+                            return;   // connection is gone
+                        }
+                    }
+                } finally {
+                    draining.set(false);
+                }
+                // An event enqueued after the last poll but before the flag was cleared would otherwise wait
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        // Resume: whatever was persisted after the client's last seen event, before any live event
+        private boolean replay() {
+            if (replayFrom == null) {
+                return true;
+            }
+            PageCursor after = replayFrom;
+            replayFrom = null;
+            List<Notification> missed;
+            try {
+                missed = notificationRepo.findAfter(userId, after, replayLimit);
+            } catch (DataAccessException e) {
+                log.warn("SSE replay failed for user {}: {}", userId, e.getMessage());
+                return true;
+            }
+            for (Notification notification : missed) {
+                replayed.put(notification.getId(), notification.getCreatedAt());
+                if (!send(notification)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean deliver(Event event) {
+            switch (event.kind()) {
+                case HEARTBEAT:
+                    return write(SseEmitter.event().comment("heartbeat"));
+                case COALESCED:
+                    // Coalesced notifications are upserts without a returned document: read the current state here,
+                    // in queue order and off the notification writer thread
+                    Notification latest = event.notification();
+                    Notification current;
+                    try {
+                        current = notificationRepo.findCoalesced(
+                                latest.getUserId(), latest.getType(), latest.getPostId(), latest.getWindowStart());
+                    } catch (DataAccessException e) {
+                        log.warn("SSE coalesced read failed for user {}: {}", userId, e.getMessage());
+                        return true;
+                    }
+                    return current == null || sendLive(current);
+                default:
+                    return sendLive(event.notification());
+            }
+        }
+
+        // Live events that were persisted before the replay query ran were already sent by it
+        private boolean sendLive(Notification notification) {
+            Date sent = replayed.remove(notification.getId());
+            if (sent != null && !notification.getCreatedAt().after(sent)) {
+                return true;
+            }
+            return send(notification);
+        }
+
+        private boolean send(Notification notification) {
+            return write(SseEmitter.event()
+                    .id(new PageCursor(notification.getCreatedAt(), notification.getId()).encode())
+                    .name("notification")
+                    .data(notification));
+        }
+
+        private boolean write(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("sse-heartbeat").daemon(true).factory());
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    // The servlet thread is released right after this returns; idle connections cost no thread
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, parseLastEventId(lastEventId));
+        // Registered before the replay query runs, so nothing published in between is missed
+        subscribers.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        Runnable remove = () -> subscribers.computeIfPresent(userId, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        subscriber.schedule();   // runs the replay, if any
+        return emitter;
+    }
+
+    // An unknown event id just means "start from live events"
+    private static PageCursor parseLastEventId(String lastEventId) {
+        try {
+            return PageCursor.decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean hasSubscribers(String userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publish(Notification notification) {
+        if (notification.getId() != null) {
+            enqueue(notification.getUserId(), new Event(Kind.NOTIFICATION, notification));
+        }
+    }
+
+    public void publishCoalesced(Notification latest) {
+        enqueue(latest.getUserId(), new Event(Kind.COALESCED, latest));
+    }
+
+    private void enqueue(String userId, Event event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> subscriber.enqueue(event));
+        }
+    }
+
+    // Skipped for connections that still have events queued: those are writing anyway
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.pending.isEmpty()) {
+                subscriber.enqueue(Event.HEARTBEAT);
+            }
+        }));
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    public int getConnectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+}
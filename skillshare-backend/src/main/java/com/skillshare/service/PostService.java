@@ -1,17 +1,18 @@
 package com.skillshare.service;
 
 import com.skillshare.dto.CommentDto;
+import com.skillshare.dto.CursorPage;
 import com.skillshare.dto.LikeRequest;
+import com.skillshare.dto.PageCursor;
 import com.skillshare.model.Comment;
 import com.skillshare.model.Post;
-import com.skillshare.repository.CommentRepository;
 import com.skillshare.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.*;
 import java.util.*;
 
 @Service
@@ -19,9 +20,16 @@ import java.util.*;
 public class PostService {
 
     private final PostRepository postRepo;
-    private final CommentRepository commentRepo;
+    private final CommentService commentService;
     private final NotificationService notificationService; // ✅ Injected
-    private final String UPLOAD_DIR = "uploads/";
+    private final TimelineService timelineService;
+    private final LikeService likeService;
+    private final MediaStorageService mediaStorage;
+    private final RenditionService renditionService;
+    private final SearchService searchService;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
 
     public Post createPostWithImage(String userId, String content, MultipartFile file) throws IOException {
         Post post = new Post();
@@ -34,32 +42,65 @@ public class PostService {
             post.setMediaUrls(Collections.singletonList(fileName));
         }
 
-        return postRepo.save(post);
+        Post saved = postRepo.save(post);
+        timelineService.submitFanOut(saved);   // ✅ Push into followers' home timelines (in the background)
+        searchService.indexPost(saved);
+        submitRenditions(saved);
+        return saved;
     }
 
+    // ✅ $set of the edited fields only: likeCount/commentCount are $inc-maintained and never written back
     public Optional<Post> updatePostWithImage(String postId, String content, MultipartFile file) throws IOException {
-        return postRepo.findById(postId).map(post -> {
-            post.setContent(content);
-            if (file != null && !file.isEmpty()) {
-                try {
-                    // Delete existing media
-                    if (post.getMediaUrls() != null) {
-                        for (String fileName : post.getMediaUrls()) {
-                            Files.deleteIfExists(Paths.get(UPLOAD_DIR + fileName));
-                        }
-                    }
-                    String newFile = savePostImage(file);
-                    post.setMediaUrls(Collections.singletonList(newFile));
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to update image: " + e.getMessage());
-                }
+        boolean replaceImage = file != null && !file.isEmpty();
+        // Store the new file first so re-uploading the same image never drops its last reference
+        String newFile = replaceImage ? savePostImage(file) : null;
+        Update update = new Update().set("content", content);
+        if (replaceImage) {
+            update.set("mediaUrls", Collections.singletonList(newFile)).set("renditions", new ArrayList<>());
+        }
+        Optional<Post> previous = postRepo.updateAndGetPrevious(postId, update);
+        if (previous.isEmpty()) {
+            if (replaceImage) {
+                mediaStorage.release(newFile);   // no post took the reference
             }
-            return postRepo.save(post);
-        });
+            return Optional.empty();
+        }
+        Post post = previous.get();
+        post.setContent(content);
+        if (replaceImage) {
+            if (post.getMediaUrls() != null) {
+                post.getMediaUrls().forEach(mediaStorage::release);
+            }
+            post.setMediaUrls(Collections.singletonList(newFile));
+            post.setRenditions(new ArrayList<>());
+        }
+        searchService.indexPost(post);
+        if (replaceImage) {
+            submitRenditions(post);
+        }
+        return Optional.of(post);
+    }
+
+    // ✅ Newest-first feed page; cost is bounded by the page size, not the collection size
+    public CursorPage<Post> getFeedPage(String cursor, Integer limit) {
+        return getPage(null, cursor, limit);
     }
 
-    public List<Post> getAllPosts() {
-        return postRepo.findAll();
+    public CursorPage<Post> getPostsByUser(String userId, String cursor, Integer limit) {
+        return getPage(Collections.singletonList(userId), cursor, limit);
+    }
+
+    private CursorPage<Post> getPage(Collection<String> authorIds, String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        List<Post> posts = postRepo.findPage(authorIds, PageCursor.decode(cursor), size + 1);
+        String nextCursor = null;
+        if (posts.size() > size) {
+            posts = posts.subList(0, size);
+            Post last = posts.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(posts, nextCursor);
     }
 
     public Optional<Post> getPostById(String postId) {
@@ -69,83 +110,78 @@ public class PostService {
     public void deletePost(String postId) {
         postRepo.findById(postId).ifPresent(post -> {
             if (post.getMediaUrls() != null) {
-                for (String file : post.getMediaUrls()) {
-                    try {
-                        Files.deleteIfExists(Paths.get(UPLOAD_DIR + file));
-                    } catch (IOException ignored) {}
-                }
+                post.getMediaUrls().forEach(mediaStorage::release);
             }
             postRepo.deleteById(postId);
+            likeService.deleteLikesForPost(postId);
+            commentService.deleteCommentsForPost(postId);
+            searchService.deletePost(postId);
         });
     }
 
-    public void likePost(String postId, LikeRequest req) {
-        postRepo.findById(postId).ifPresent(post -> {
-            if (!post.getLikedUserIds().contains(req.getUserId())) {
-                post.getLikedUserIds().add(req.getUserId());
-                postRepo.save(post);
-
+    // ✅ Likes are rows in the likes collection; the post only gets an atomic likeCount $inc
+    public boolean likePost(String postId, LikeRequest req) {
+        boolean changed = likeService.likePost(postId, req.getUserId());
+        if (changed) {
+            // ✅ Send notification to the post owner
+            postRepo.findOwnerId(postId)
+                    .filter(ownerId -> !ownerId.equals(req.getUserId()))
+                    .ifPresent(ownerId -> notificationService.sendNotification(
+                            ownerId, req.getUserId(), "like", postId, "❤️ Someone liked your post."
+                    ));
+        }
+        return changed;
+    }
 
-                // ✅ Send notification to the post owner
-                if (!req.getUserId().equals(post.getUserId())) {
-                    notificationService.sendNotification(
-                            post.getUserId(), req.getUserId(), "like", postId, "❤️ Someone liked your post."
-                    );
-                }
-            }
-        });
+    public boolean unlikePost(String postId, LikeRequest req) {
+        return likeService.unlikePost(postId, req.getUserId());
     }
 
-    public void unlikePost(String postId, LikeRequest req) {
-        postRepo.findById(postId).ifPresent(post -> {
-            post.getLikedUserIds().remove(req.getUserId());
-            postRepo.save(post);
-        });
+    public Set<String> getLikedPostIds(String userId, List<String> postIds) {
+        return likeService.getLikedPostIds(userId, postIds);
     }
 
-    public void commentPost(CommentDto dto) {
-        Comment comment = new Comment();
-        comment.setPostId(dto.getPostId());
-        comment.setUserId(dto.getUserId());
-        comment.setText(dto.getText());
-        comment.setCreatedAt(new Date());
-        commentRepo.save(comment);
+    // ✅ Comment rows plus an atomic commentCount $inc; empty when the post does not exist
+    public Optional<Comment> commentPost(CommentDto dto) {
+        Optional<Comment> added = commentService.addComment(dto);
+        if (added.isEmpty()) {
+            return added;
+        }
 
         // ✅ Notify the post owner
-        Optional<Post> post = postRepo.findById(dto.getPostId());
-        post.ifPresent(p -> {
-            if (!p.getUserId().equals(dto.getUserId())) {
-                notificationService.sendNotification(
-                        p.getUserId(), dto.getUserId(), "comment", p.getId(), "💬 Someone commented on your post."
-                );
-            }
-        });
+        postRepo.findOwnerId(dto.getPostId())
+                .filter(ownerId -> !ownerId.equals(dto.getUserId()))
+                .ifPresent(ownerId -> notificationService.sendNotification(
+                        ownerId, dto.getUserId(), "comment", dto.getPostId(), "💬 Someone commented on your post."
+                ));
+        return added;
     }
 
-    public List<Comment> getComments(String postId) {
-        return commentRepo.findByPostId(postId);
+    public CursorPage<Comment> getComments(String postId, String cursor, Integer limit) {
+        return commentService.getComments(postId, cursor, limit);
     }
 
     public Optional<Comment> getCommentById(String commentId) {
-        return commentRepo.findById(commentId);
+        return commentService.getCommentById(commentId);
     }
 
     public Optional<Comment> updateComment(String commentId, String newText) {
-        return commentRepo.findById(commentId).map(comment -> {
-            comment.setText(newText);
-            return commentRepo.save(comment);
-        });
+        return commentService.updateComment(commentId, newText);
     }
 
     public void deleteComment(String commentId) {
-        commentRepo.deleteById(commentId);
+        commentService.deleteComment(commentId);
     }
 
+    // ✅ Streamed to disk (no file.getBytes() heap copy) and deduplicated by content hash
     public String savePostImage(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        Path path = Paths.get(UPLOAD_DIR + fileName);
-        Files.createDirectories(path.getParent());
-        Files.write(path, file.getBytes());
-        return fileName;
+        return mediaStorage.store(file).fileName();
+    }
+
+    // ✅ Thumbnails are generated off the request thread and recorded on the post when ready
+    private void submitRenditions(Post post) {
+        if (post.getMediaUrls() != null) {
+            post.getMediaUrls().forEach(fileName -> renditionService.submit(post.getId(), fileName));
+        }
     }
 }
@@ -0,0 +1,220 @@
+package com.skillshare.service;
+
+import com.skillshare.model.Rendition;
+import com.skillshare.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// ✅ Background pipeline that pre-generates downscaled JPEG renditions of uploaded images on a bounded executor
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RenditionService {
+
+    // Ascending; the static handler serves the smallest one at least as wide as the requested ?w=
+    public static final int[] WIDTHS = {320, 640, 1080};
+
+    private static final String UPLOAD_DIR = "uploads/";
+
+    private final PostRepository postRepo;
+
+    @Value("${media.renditions.threads:2}")
+    private int threads;
+
+    @Value("${media.renditions.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${media.renditions.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // Images declaring more pixels than this are never decoded (40 MP is a 4 bytes/pixel buffer of ~160 MB)
+    @Value("${media.renditions.max-pixels:40000000}")
+    private long maxPixels;
+
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("rendition-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Never blocks the upload: when the queue is full the post simply keeps serving the original
+    public void submit(String postId, String fileName) {
+        try {
+            executor.execute(() -> render(postId, fileName));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Rendition queue full, serving original only: post={} file={}", postId, fileName);
+        }
+    }
+
+    // Smallest rendition width that still covers the requested display width; empty means serve the original
+    public static OptionalInt widthFor(int requested) {
+        for (int width : WIDTHS) {
+            if (width >= requested) {
+                return OptionalInt.of(width);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    public static String renditionName(String fileName, int width) {
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > fileName.lastIndexOf('/') ? fileName.substring(0, dot) : fileName;
+        return base + "_w" + width + ".jpg";
+    }
+
+    private void render(String postId, String fileName) {
+        try {
+            List<Rendition> renditions = renderFile(fileName);
+            // Only recorded while the post still uses this file (it may have been edited in the meantime)
+            if (!renditions.isEmpty() && !postRepo.addRenditions(postId, fileName, renditions)) {
+                log.debug("Post {} no longer uses {}, renditions not recorded", postId, fileName);
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Rendition failed for {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private List<Rendition> renderFile(String fileName) throws IOException {
+        Path root = Paths.get(UPLOAD_DIR);
+        BufferedImage original = decode(root.resolve(fileName));
+        if (original == null) {
+            skipped.increment();   // not an image format the JDK can decode, or too large to decode safely
+            return List.of();
+        }
+
+        List<Rendition> renditions = new ArrayList<>();
+        for (int width : WIDTHS) {
+            if (width >= original.getWidth()) {
+                break;   // never upscale; the original is the largest size
+            }
+            int height = Math.max(1, Math.round((float) original.getHeight() * width / original.getWidth()));
+            String name = renditionName(fileName, width);
+            Path target = root.resolve(name);
+            // Content-addressed originals share their renditions with every post that uses them
+            if (!Files.exists(target)) {
+                writeJpeg(resize(original, width, height), target);
+            }
+            renditions.add(new Rendition(fileName, name, width, height));
+        }
+        rendered.increment();
+        return renditions;
+    }
+
+    // Reads the dimensions from the header first: a small file can declare a huge canvas (decompression bomb),
+    // and decoding allocates width * height pixels up front
+    private BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Image {} has {} pixels (limit {}), serving original only", file.getFileName(), pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halve repeatedly before the final bilinear step so large downscales do not alias
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);   // JPEG has no alpha
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path tmpDir = Paths.get(UPLOAD_DIR).resolve(".tmp");
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "rendition-", ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("active", executor.getActiveCount());
+        stats.put("rendered", rendered.sum());
+        stats.put("skipped", skipped.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+}
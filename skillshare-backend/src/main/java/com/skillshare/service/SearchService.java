@@ -0,0 +1,313 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.SearchHitDto;
+import com.skillshare.model.MealPlan;
+import com.skillshare.model.Post;
+import com.skillshare.repository.MealPlanRepository;
+import com.skillshare.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// ✅ Embedded Lucene index over post content and meal plans, updated on every write; queries never scan MongoDB
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    public static final String TYPE_POST = "post";
+    public static final String TYPE_MEAL_PLAN = "mealplan";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    // Ranked results deeper than this are not served (page * size is bounded)
+    private static final int MAX_RESULT_WINDOW = 1000;
+
+    private static final String UID = "uid";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String TITLE = "title";
+    private static final String TEXT = "text";
+    private static final String TOPICS = "topics";
+
+    private final PostRepository postRepo;
+    private final MealPlanRepository mealPlanRepo;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${search.index-dir:search-index}")
+    private String indexDir;
+
+    // Writes become visible to searches within this interval
+    @Value("${search.refresh-ms:1000}")
+    private long refreshMs;
+
+    @Value("${search.commit-ms:30000}")
+    private long commitMs;
+
+    // Ops switch: rebuild from MongoDB once on this start even though the index has documents
+    @Value("${search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService maintenance;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("search-index").daemon(true).factory());
+        maintenance.scheduleWithFixedDelay(this::refresh, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::commit, commitMs, commitMs, TimeUnit.MILLISECONDS);
+
+        // First start (or lost index directory): build it from MongoDB in the background
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            maintenance.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        // Let a running rebuild finish: interrupting IndexWriter I/O would close the writer
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            searcherManager.close();
+            writer.close();   // commits pending changes
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Failed to close search index: {}", e.getMessage());
+        }
+    }
+
+    // ---------- incremental updates (called from PostService / MealPlanService) ----------
+
+    public void indexPost(Post post) {
+        Document doc = new Document();
+        doc.add(new StringField(UID, uid(TYPE_POST, post.getId()), Field.Store.NO));
+        doc.add(new StringField(TYPE, TYPE_POST, Field.Store.YES));
+        doc.add(new StringField(ID, post.getId(), Field.Store.YES));
+        addIfPresent(doc, USER_ID, post.getUserId());
+        doc.add(new TextField(TEXT, Objects.toString(post.getContent(), ""), Field.Store.NO));
+        update(uid(TYPE_POST, post.getId()), doc);
+    }
+
+    public void indexMealPlan(MealPlan plan) {
+        Document doc = new Document();
+        doc.add(new StringField(UID, uid(TYPE_MEAL_PLAN, plan.getId()), Field.Store.NO));
+        doc.add(new StringField(TYPE, TYPE_MEAL_PLAN, Field.Store.YES));
+        doc.add(new StringField(ID, plan.getId(), Field.Store.YES));
+        addIfPresent(doc, USER_ID, plan.getUserId());
+        doc.add(new TextField(TITLE, Objects.toString(plan.getTitle(), ""), Field.Store.NO));
+        doc.add(new TextField(TEXT, Objects.toString(plan.getDescription(), ""), Field.Store.NO));
+        if (plan.getTopics() != null) {
+            plan.getTopics().stream().filter(Objects::nonNull)
+                    .forEach(topic -> doc.add(new TextField(TOPICS, topic, Field.Store.NO)));
+        }
+        update(uid(TYPE_MEAL_PLAN, plan.getId()), doc);
+    }
+
+    public void deletePost(String postId) {
+        delete(uid(TYPE_POST, postId));
+    }
+
+    public void deleteMealPlan(String planId) {
+        delete(uid(TYPE_MEAL_PLAN, planId));
+    }
+
+    // Index failures are logged, never surfaced to the write that triggered them; a rebuild repairs them
+    private void update(String uid, Document doc) {
+        try {
+            writer.updateDocument(new Term(UID, uid), doc);
+        } catch (IOException e) {
+            log.warn("Failed to index {}: {}", uid, e.getMessage());
+        }
+    }
+
+    private void delete(String uid) {
+        try {
+            writer.deleteDocuments(new Term(UID, uid));
+        } catch (IOException e) {
+            log.warn("Failed to remove {} from search index: {}", uid, e.getMessage());
+        }
+    }
+
+    // ---------- queries ----------
+
+    // ✅ Relevance-ranked page; type == null searches posts and meal plans together
+    public List<SearchHitDto> search(String text, String type, int page, int size) throws IOException {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        if (type != null && !TYPE_POST.equals(type) && !TYPE_MEAL_PLAN.equals(type)) {
+            throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        int from = page * size;
+        if (page < 0 || from + size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Page out of range");
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(parse(text), BooleanClause.Occur.MUST);
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+
+        List<SearchHitDto> hits = new ArrayList<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            ScoreDoc[] scoreDocs = searcher.search(query.build(), from + size).scoreDocs;
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = from; i < scoreDocs.length; i++) {
+                Document doc = storedFields.document(scoreDocs[i].doc);
+                hits.add(new SearchHitDto(doc.get(TYPE), doc.get(ID), scoreDocs[i].score, null));
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return hydrate(hits);
+    }
+
+    // User text first goes through the full query syntax; anything it cannot parse is searched literally
+    private org.apache.lucene.search.Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{TITLE, TEXT, TOPICS}, analyzer, Map.of(TITLE, 2.0f, TOPICS, 1.5f));
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(text));
+            } catch (ParseException escaped) {
+                throw new IllegalArgumentException("Invalid query");
+            }
+        }
+    }
+
+    // Two findAllById calls per page, results kept in rank order; documents deleted meanwhile drop out
+    private List<SearchHitDto> hydrate(List<SearchHitDto> hits) {
+        Map<String, Post> posts = idsOf(hits, TYPE_POST).isEmpty() ? Map.of()
+                : postRepo.findAllById(idsOf(hits, TYPE_POST)).stream()
+                        .collect(Collectors.toMap(Post::getId, Function.identity()));
+        Map<String, MealPlan> plans = idsOf(hits, TYPE_MEAL_PLAN).isEmpty() ? Map.of()
+                : mealPlanRepo.findAllById(idsOf(hits, TYPE_MEAL_PLAN)).stream()
+                        .collect(Collectors.toMap(MealPlan::getId, Function.identity()));
+
+        List<SearchHitDto> result = new ArrayList<>(hits.size());
+        for (SearchHitDto hit : hits) {
+            Object item = TYPE_POST.equals(hit.getType()) ? posts.get(hit.getId()) : plans.get(hit.getId());
+            if (item != null) {
+                hit.setItem(item);
+                result.add(hit);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> idsOf(List<SearchHitDto> hits, String type) {
+        return hits.stream().filter(h -> type.equals(h.getType())).map(SearchHitDto::getId).collect(Collectors.toList());
+    }
+
+    // ---------- maintenance ----------
+
+    // ✅ Bulk rebuild from MongoDB, streamed with cursors; startup only, never triggered by a request
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            writer.deleteAll();
+            // updateDocument (not add): writes racing with the rebuild must not produce duplicates
+            try (Stream<Post> posts = mongoTemplate.stream(new Query(), Post.class)) {
+                posts.forEach(this::indexPost);
+            }
+            try (Stream<MealPlan> plans = mongoTemplate.stream(new Query(), MealPlan.class)) {
+                plans.forEach(this::indexMealPlan);
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Search index rebuilt: {} documents in {} ms",
+                    writer.getDocStats().numDocs, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("Search index rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Not while rebuilding: readers keep the last complete index until the rebuild is committed
+    private void refresh() {
+        if (rebuilding.get()) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void commit() {
+        if (rebuilding.get() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Search index commit failed: {}", e.getMessage());
+        }
+    }
+
+    private static void addIfPresent(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new StringField(field, value, Field.Store.YES));
+        }
+    }
+
+    private static String uid(String type, String id) {
+        return type + ":" + id;
+    }
+}
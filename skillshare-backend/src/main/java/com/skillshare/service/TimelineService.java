@@ -0,0 +1,206 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Post;
+import com.skillshare.model.Timeline;
+import com.skillshare.model.TimelineEntry;
+import com.skillshare.model.User;
+import com.skillshare.repository.PostRepository;
+import com.skillshare.repository.TimelineRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// ✅ Home timeline: fan-out-on-write for regular authors, fan-out-on-read for very popular ones
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST =
+            Comparator.comparing(TimelineEntry::getCreatedAt)
+                    .thenComparing(TimelineEntry::getPostId)
+                    .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final TimelineRepository timelineRepo;
+    private final PostRepository postRepo;
+    private final FollowService followService;
+
+    // Authors with more followers than this are not pushed to timelines; readers pull their posts instead
+    @Value("${timeline.fanout-follower-limit:10000}")
+    private int fanOutFollowerLimit;
+
+    // Maximum number of entries kept in each materialized timeline
+    @Value("${timeline.max-entries:800}")
+    private int maxEntries;
+
+    // Follower ids are streamed from the follows index and written in bulk chunks of this size
+    @Value("${timeline.fanout-batch-size:1000}")
+    private int fanOutBatchSize;
+
+    @Value("${timeline.fanout-threads:2}")
+    private int fanOutThreads;
+
+    @Value("${timeline.fanout-queue-capacity:1000}")
+    private int fanOutQueueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(fanOutThreads, fanOutThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueCapacity),
+                Thread.ofPlatform().name("timeline-fanout-", 0).daemon(true).factory());
+    }
+
+    // Let queued fan-outs finish so accepted posts still reach their followers' timelines
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ✅ Post creation returns right after the insert; the fan-out runs in the background.
+    // When the queue is full the caller fans out inline instead of dropping the post from timelines (backpressure).
+    public void submitFanOut(Post post) {
+        try {
+            executor.execute(() -> fanOutLogged(post));
+        } catch (RejectedExecutionException e) {
+            log.warn("Timeline fan-out queue full, fanning out inline: post={}", post.getId());
+            fanOutLogged(post);
+        }
+    }
+
+    private void fanOutLogged(Post post) {
+        try {
+            fanOut(post);
+        } catch (RuntimeException e) {
+            // Followers still see the post in profiles/search; only the materialized timelines miss it
+            log.warn("Timeline fan-out failed for post {}: {}", post.getId(), e.getMessage());
+        }
+    }
+
+    // ✅ Push a new post into every follower's timeline in a single bulk write
+    public void fanOut(Post post) {
+        long followerCount = getFollowerCount(post.getUserId());
+        if (followerCount == 0 || followerCount > fanOutFollowerLimit) {
+            return;
+        }
+
+        TimelineEntry entry = new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+        Update push = new Update();
+        push.push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .slice(maxEntries)
+                .each(entry);
+
+        followService.forEachFollowerIdBatch(post.getUserId(), fanOutBatchSize, followers -> {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+            for (String followerId : followers) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(followerId)), push);
+            }
+            bulk.execute();
+        });
+    }
+
+    // ✅ Merge the materialized timeline with a range scan over posts of high-follower authors
+    public CursorPage<Post> getTimeline(String userId, String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, PostService.DEFAULT_PAGE_SIZE, PostService.MAX_PAGE_SIZE);
+        PageCursor before = PageCursor.decode(cursor);
+
+        Set<String> following = followService.getFollowingIds(userId);
+        if (following.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        // Pushed entries, restricted to authors the reader still follows
+        List<TimelineEntry> candidates = timelineRepo.findById(userId)
+                .map(Timeline::getEntries)
+                .orElse(List.of())
+                .stream()
+                .filter(e -> following.contains(e.getAuthorId()))
+                .filter(e -> before == null || isBefore(e, before))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // Pulled posts from authors that are too popular for fan-out-on-write
+        Map<String, Post> pulled = new HashMap<>();
+        List<String> pullAuthors = getPullAuthors(following);
+        if (!pullAuthors.isEmpty()) {
+            for (Post post : postRepo.findPage(pullAuthors, before, size + 1)) {
+                pulled.put(post.getId(), post);
+                candidates.add(new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt()));
+            }
+        }
+
+        candidates.sort(NEWEST_FIRST);
+        List<TimelineEntry> window = candidates.stream().distinct().limit(size + 1).collect(Collectors.toList());
+
+        List<String> toLoad = window.stream()
+                .map(TimelineEntry::getPostId)
+                .filter(id -> !pulled.containsKey(id))
+                .collect(Collectors.toList());
+        Map<String, Post> loaded = postRepo.findAllById(toLoad).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        loaded.putAll(pulled);
+
+        List<Post> posts = new ArrayList<>();
+        for (TimelineEntry entry : window.subList(0, Math.min(size, window.size()))) {
+            Post post = loaded.get(entry.getPostId());
+            if (post != null) {   // deleted posts simply drop out
+                posts.add(post);
+            }
+        }
+
+        String nextCursor = null;
+        if (window.size() > size) {
+            TimelineEntry last = window.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new CursorPage<>(posts, nextCursor);
+    }
+
+    private static boolean isBefore(TimelineEntry entry, PageCursor cursor) {
+        int cmp = entry.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return cmp < 0 || (cmp == 0 && entry.getPostId().compareTo(cursor.getId()) < 0);
+    }
+
+    private long getFollowerCount(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("followerCount");
+        User user = mongoTemplate.findOne(query, User.class);
+        return user == null ? 0 : user.getFollowerCount();
+    }
+
+    // Followed authors whose follower count exceeds the fan-out limit
+    private List<String> getPullAuthors(Set<String> following) {
+        Query query = Query.query(Criteria.where("_id").in(following)
+                .and("followerCount").gt(fanOutFollowerLimit));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+    }
+}
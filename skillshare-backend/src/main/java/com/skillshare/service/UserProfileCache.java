@@ -0,0 +1,42 @@
+package com.skillshare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillshare.dto.UserDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// ✅ Bounded (W-TinyLFU) cache of public profiles, shared by every lookup that turns user ids into UserDto
+@Component
+public class UserProfileCache {
+
+    private final Cache<String, UserDto> cache;
+
+    public UserProfileCache(@Value("${users.profile-cache.max-size:50000}") long maxSize,
+                            @Value("${users.profile-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // Loader returns null for unknown ids, which are not cached
+    public UserDto get(String id, Function<String, UserDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    // Loader receives only the misses; ids it leaves out are absent from the result
+    public Map<String, UserDto> getAll(Collection<String> ids, Function<Set<? extends String>, Map<String, UserDto>> loader) {
+        return cache.getAll(ids, loader);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+}
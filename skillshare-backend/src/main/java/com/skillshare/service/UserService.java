@@ -1,10 +1,14 @@
 // ✅ UserService.java
 package com.skillshare.service;
 
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
 import com.skillshare.dto.UserDto;
 import com.skillshare.model.User;
 import com.skillshare.repository.UserRepository;
+import com.skillshare.security.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -16,90 +20,133 @@ public class UserService {
 
     private final UserRepository userRepo;
     private final NotificationService notificationService; // ✅ Injected
+    private final CustomUserDetailsService userDetailsService;
+    private final UserProfileCache profileCache;
+    private final FollowService followService;
+    private final UserSuggestIndex suggestIndex;
+
+    public static final int MAX_BATCH_SIZE = 200;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
     // New method to get user by email for the /me endpoint
     public Optional<UserDto> getUserByEmail(String email) {
         return userRepo.findByEmail(email).map(this::convertToDto);
     }
 
-    public List<UserDto> getAllUsers() {
-        return userRepo.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // ✅ User directory: projected to the DTO fields and keyset-paginated by id; cursor = last id of the previous page
+    public CursorPage<UserDto> getUsers(String cursor, Integer limit) {
+        int size = PageCursor.clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        String afterId = cursor == null || cursor.isBlank() ? null : cursor;
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // Fetch one extra row to know whether another page exists
+        List<User> users = userRepo.findDirectoryPage(afterId, size + 1);
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = users.get(size - 1).getId();
+        }
+        return new CursorPage<>(users.stream().map(this::convertToDto).collect(Collectors.toList()), nextCursor);
     }
 
     public Optional<UserDto> getUserById(String id) {
-        return userRepo.findById(id).map(this::convertToDto);
+        return Optional.ofNullable(profileCache.get(id, key -> userRepo.findById(key).map(this::convertToDto).orElse(null)));
+    }
+
+    // ✅ Typeahead: answered from the in-memory prefix index
+    public List<UserDto> suggestUsers(String query, Integer limit) {
+        int size = limit == null || limit <= 0 ? UserSuggestIndex.DEFAULT_LIMIT : Math.min(limit, UserSuggestIndex.MAX_LIMIT);
+        return suggestIndex.suggest(query, size);
     }
 
+    // ✅ Resolves many ids with one findAllById for the cache misses; unknown ids are simply absent
+    public Map<String, UserDto> getUsersByIds(Collection<String> ids) {
+        Set<String> unique = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        return profileCache.getAll(unique, missing -> {
+            Map<String, UserDto> loaded = new HashMap<>();
+            userRepo.findAllById(new ArrayList<>(missing)).forEach(user -> loaded.put(user.getId(), convertToDto(user)));
+            return loaded;
+        });
+    }
+
+    // ✅ $set of the profile fields only, so concurrent follows ($inc of the counts) are never overwritten
     public Optional<UserDto> updateUser(String id, UserDto dto) {
-        return userRepo.findById(id).map(user -> {
-            user.setFirstname(dto.getFirstname());
-            user.setLastname(dto.getLastname());
-            user.setProfilePic(dto.getProfilePic());
-            user.setBio(dto.getBio());
-            return convertToDto(userRepo.save(user));
+        return userRepo.updateProfile(id, dto.getFirstname(), dto.getLastname(), dto.getProfilePic(), dto.getBio()).map(saved -> {
+            profileCache.invalidate(id);
+            suggestIndex.put(saved);
+            return convertToDto(saved);
         });
     }
 
     public void deleteUser(String id) {
-        userRepo.deleteById(id);
+        userRepo.findById(id).ifPresent(user -> {
+            userRepo.deleteById(id);
+            userDetailsService.evict(user.getEmail());   // ✅ Stop authenticating the deleted account
+            profileCache.invalidate(id);
+            followService.removeUser(id);
+            suggestIndex.remove(id);
+        });
     }
 
     // ✅ Convert User -> UserDto
-    private UserDto convertToDto(User user) {
+    public UserDto convertToDto(User user) {
         UserDto dto = new UserDto();
         dto.setId(user.getId());
         dto.setFirstname(user.getFirstname());
         dto.setLastname(user.getLastname());
         dto.setProfilePic(user.getProfilePic());
         dto.setBio(user.getBio());
+        dto.setFollowerCount(user.getFollowerCount());
+        dto.setFollowingCount(user.getFollowingCount());
         return dto;
     }
 
-    // ✅ Follow logic
-    public boolean followUser(String userId, String followerId) {
-        if (userId.equals(followerId)) return false;
-        Optional<User> userOpt = userRepo.findById(userId);
-        Optional<User> followerOpt = userRepo.findById(followerId);
-        if (userOpt.isPresent() && followerOpt.isPresent()) {
-            User user = userOpt.get();
-            User follower = followerOpt.get();
-            user.getFollowers().add(followerId);
-            follower.getFollowing().add(userId);
-            userRepo.save(user);
-            userRepo.save(follower);
-
-            // ✅ Notification to the followed user
+    // ✅ Follow logic: one atomic edge upsert; empty = invalid request, otherwise whether anything changed
+    public Optional<Boolean> followUser(String userId, String followerId) {
+        if (!isValidFollow(userId, followerId)) {
+            return Optional.empty();
+        }
+        boolean changed = followService.follow(followerId, userId);
+        if (changed) {
+            profileCache.invalidate(userId);       // cached counts are stale now
+            profileCache.invalidate(followerId);
+
+            // ✅ Notification to the followed user, only on a real not-following -> following transition
             notificationService.sendNotification(
                     userId, followerId, "follow", null, "👤 Someone followed you."
             );
-
-            return true;
         }
-        return false;
+        return Optional.of(changed);
     }
 
-    public boolean unfollowUser(String userId, String followerId) {
-        Optional<User> userOpt = userRepo.findById(userId);
-        Optional<User> followerOpt = userRepo.findById(followerId);
-        if (userOpt.isPresent() && followerOpt.isPresent()) {
-            User user = userOpt.get();
-            User follower = followerOpt.get();
-            user.getFollowers().remove(followerId);
-            follower.getFollowing().remove(userId);
-            userRepo.save(user);
-            userRepo.save(follower);
-            return true;
+    public Optional<Boolean> unfollowUser(String userId, String followerId) {
+        if (!isValidFollow(userId, followerId)) {
+            return Optional.empty();
+        }
+        boolean changed = followService.unfollow(followerId, userId);
+        if (changed) {
+            profileCache.invalidate(userId);
+            profileCache.invalidate(followerId);
         }
-        return false;
+        return Optional.of(changed);
+    }
+
+    private boolean isValidFollow(String userId, String followerId) {
+        return !userId.equals(followerId) && userRepo.existsById(userId) && userRepo.existsById(followerId);
+    }
+
+    public boolean isFollowing(String userId, String followerId) {
+        return followService.isFollowing(followerId, userId);
     }
 
-    public Set<String> getFollowers(String userId) {
-        return userRepo.findById(userId).map(User::getFollowers).orElse(Set.of());
+    // ✅ Newest-first pages of ids; the totals are followerCount / followingCount on the user
+    public CursorPage<String> getFollowers(String userId, String cursor, Integer limit) {
+        return followService.getFollowers(userId, cursor, limit);
     }
 
-    public Set<String> getFollowing(String userId) {
-        return userRepo.findById(userId).map(User::getFollowing).orElse(Set.of());
+    public CursorPage<String> getFollowing(String userId, String cursor, Integer limit) {
+        return followService.getFollowing(userId, cursor, limit);
     }
 }
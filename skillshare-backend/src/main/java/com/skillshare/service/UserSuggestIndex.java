@@ -0,0 +1,120 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// ✅ In-memory prefix index over first/last names for typeahead; lock-free reads, no MongoDB on the query path
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSuggestIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 25;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Separates the name key from the user id so equal names map to distinct entries
+    private static final char SEPARATOR = '\u0000';
+
+    private final MongoTemplate mongoTemplate;
+
+    // "ana\0<id>", "silva\0<id>", "ana silva\0<id>" -> profile; sorted, so a prefix is one contiguous range
+    private final ConcurrentSkipListMap<String, UserDto> entries = new ConcurrentSkipListMap<>();
+    // userId -> its keys, to remove stale ones on rename / delete
+    private final Map<String, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        Query query = new Query();
+        query.fields().include("firstname").include("lastname").include("profilePic");
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            users.forEach(this::put);
+        }
+        log.info("User suggest index loaded: {} users in {} ms", keysByUser.size(), System.currentTimeMillis() - started);
+    }
+
+    public void put(User user) {
+        UserDto profile = new UserDto();
+        profile.setId(user.getId());
+        profile.setFirstname(user.getFirstname());
+        profile.setLastname(user.getLastname());
+        profile.setProfilePic(user.getProfilePic());
+
+        List<String> keys = new ArrayList<>();
+        for (String name : names(user)) {
+            keys.add(name + SEPARATOR + user.getId());
+        }
+        // Add the new keys before dropping the old ones so the user never disappears from results
+        keys.forEach(key -> entries.put(key, profile));
+        List<String> previous = keysByUser.put(user.getId(), keys);
+        if (previous != null) {
+            previous.stream().filter(key -> !keys.contains(key)).forEach(entries::remove);
+        }
+    }
+
+    public void remove(String userId) {
+        List<String> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            keys.forEach(entries::remove);
+        }
+    }
+
+    // ✅ Users whose first name, last name or full name starts with the query, alphabetical by matched name
+    public List<UserDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        ConcurrentNavigableMap<String, UserDto> range = entries.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        Map<String, UserDto> result = new LinkedHashMap<>();
+        for (UserDto profile : range.values()) {
+            result.putIfAbsent(profile.getId(), profile);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private static Set<String> names(User user) {
+        String first = normalize(user.getFirstname());
+        String last = normalize(user.getLastname());
+        Set<String> names = new LinkedHashSet<>();
+        if (!first.isEmpty()) {
+            names.add(first);
+        }
+        if (!last.isEmpty()) {
+            names.add(last);
+        }
+        if (!first.isEmpty() && !last.isEmpty()) {
+            names.add(first + " " + last);
+        }
+        return names;
+    }
+
+    // Case- and accent-insensitive: "José" and "jose" share a key
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+}
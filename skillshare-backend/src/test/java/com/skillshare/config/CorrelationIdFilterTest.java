@@ -0,0 +1,68 @@
+package com.skillshare.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    @Test
+    void incomingRequestIdIsKeptAndEchoed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.addHeader(CorrelationIdFilter.REQUEST_ID_HEADER, "req-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> seen = new HashMap<>();
+
+        filter(0).doFilter(request, response, (req, res) -> seen.put("requestId", MDC.get(CorrelationIdFilter.REQUEST_ID_KEY)));
+
+        assertThat(seen).containsEntry("requestId", "req-123");
+        assertThat(response.getHeader(CorrelationIdFilter.REQUEST_ID_HEADER)).isEqualTo("req-123");
+        assertThat(MDC.get(CorrelationIdFilter.REQUEST_ID_KEY)).isNull();
+    }
+
+    @Test
+    void missingOrOversizedRequestIdIsReplaced() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.addHeader(CorrelationIdFilter.REQUEST_ID_HEADER, "x".repeat(65));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(0).doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(CorrelationIdFilter.REQUEST_ID_HEADER))
+                .matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    }
+
+    @Test
+    void sampledRequestIsFlaggedOnlyWhileItRuns() throws Exception {
+        Map<String, String> seen = new HashMap<>();
+
+        filter(1.0).doFilter(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse(),
+                (req, res) -> seen.put("sampled", MDC.get(CorrelationIdFilter.DEBUG_SAMPLED_KEY)));
+
+        assertThat(seen).containsEntry("sampled", "true");
+        assertThat(MDC.get(CorrelationIdFilter.DEBUG_SAMPLED_KEY)).isNull();
+    }
+
+    @Test
+    void zeroRateNeverSamples() throws Exception {
+        Map<String, String> seen = new HashMap<>();
+
+        filter(0).doFilter(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse(),
+                (req, res) -> seen.put("sampled", MDC.get(CorrelationIdFilter.DEBUG_SAMPLED_KEY)));
+
+        assertThat(seen).containsEntry("sampled", null);
+    }
+
+    private static CorrelationIdFilter filter(double debugSampleRate) {
+        CorrelationIdFilter filter = new CorrelationIdFilter();
+        ReflectionTestUtils.setField(filter, "debugSampleRate", debugSampleRate);
+        return filter;
+    }
+}
@@ -0,0 +1,48 @@
+package com.skillshare.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledDebugTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SampledDebugTurboFilter filter = new SampledDebugTurboFilter();
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void sampledRequestLetsOwnDebugThrough() {
+        MDC.put(CorrelationIdFilter.DEBUG_SAMPLED_KEY, "true");
+
+        assertThat(decide("com.skillshare.service.PostService", Level.DEBUG)).isEqualTo(FilterReply.ACCEPT);
+    }
+
+    @Test
+    void otherPackagesAndLevelsAreLeftToTheLoggerLevel() {
+        MDC.put(CorrelationIdFilter.DEBUG_SAMPLED_KEY, "true");
+
+        assertThat(decide("org.mongodb.driver", Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide("com.skillshare.service.PostService", Level.TRACE)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide("com.skillshare.service.PostService", Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void unsampledRequestIsNeutral() {
+        assertThat(decide("com.skillshare.service.PostService", Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(String loggerName, Level level) {
+        Logger logger = context.getLogger(loggerName);
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.skillshare.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        PageCursor cursor = new PageCursor(new Date(1_717_000_000_123L), "6650f1c2a4b3c2d1e0f9a8b7");
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(cursor.getCreatedAt());
+        assertThat(decoded.getId()).isEqualTo(cursor.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String token = new PageCursor(new Date(), "id/with+odd?chars").encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> PageCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("no-separator"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("abc:id"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("123:"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void clampLimitAppliesDefaultAndMax() {
+        assertThat(PageCursor.clampLimit(null, 20, 50)).isEqualTo(20);
+        assertThat(PageCursor.clampLimit(0, 20, 50)).isEqualTo(20);
+        assertThat(PageCursor.clampLimit(-5, 20, 50)).isEqualTo(20);
+        assertThat(PageCursor.clampLimit(10, 20, 50)).isEqualTo(10);
+        assertThat(PageCursor.clampLimit(500, 20, 50)).isEqualTo(50);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
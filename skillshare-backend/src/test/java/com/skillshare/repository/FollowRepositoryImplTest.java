@@ -0,0 +1,48 @@
+package com.skillshare.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import com.skillshare.model.Follow;
+import org.bson.BsonObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private FollowRepositoryImpl followRepo;
+
+    @Test
+    void upsertReportsWhetherItCreatedTheEdge() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Follow.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, new BsonObjectId()))
+                .thenReturn(UpdateResult.acknowledged(1, 0L, null));
+
+        assertThat(followRepo.upsert("alice", "bob")).isTrue();
+        assertThat(followRepo.upsert("alice", "bob")).isFalse();
+    }
+
+    // Two concurrent upserts of a missing edge: the loser hits the unique index
+    @Test
+    void losingAnUpsertRaceIsNotAChange() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Follow.class)))
+                .thenThrow(new DuplicateKeyException("follower_followee_unique"));
+
+        assertThat(followRepo.upsert("alice", "bob")).isFalse();
+    }
+}
@@ -0,0 +1,54 @@
+package com.skillshare.repository;
+
+import com.skillshare.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserRepositoryImpl userRepo;
+
+    @Test
+    void directoryPageReadsOnlyPublicFieldsInIdOrder() {
+        userRepo.findDirectoryPage(null, 21);
+
+        Query query = capturedQuery();
+        assertThat(query.getQueryObject()).isEmpty();
+        assertThat(query.getFieldsObject())
+                .containsOnlyKeys("firstname", "lastname", "profilePic", "bio", "followerCount", "followingCount");
+        assertThat(query.getSortObject()).isEqualTo(new Document("_id", 1));
+        assertThat(query.getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    void directoryPageStartsAfterTheCursorId() {
+        ObjectId after = new ObjectId();
+
+        userRepo.findDirectoryPage(after.toHexString(), 5);
+
+        assertThat(capturedQuery().getQueryObject()).isEqualTo(new Document("_id", new Document("$gt", after)));
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(User.class));
+        return query.getValue();
+    }
+}
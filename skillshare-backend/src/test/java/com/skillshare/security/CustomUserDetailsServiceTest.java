@@ -0,0 +1,71 @@
+package com.skillshare.security;
+
+import com.skillshare.model.User;
+import com.skillshare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    private static final String EMAIL = "alice@skillshare.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void repeatedLookupsHitMongoOnce() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 100, 300);
+
+        UserDetails first = service.loadUserByUsername(EMAIL);
+        UserDetails second = service.loadUserByUsername(EMAIL);
+
+        assertThat(second.getUsername()).isEqualTo(EMAIL);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+        // Copies: erasing credentials on one must not affect the cached entry
+        assertThat(first).isNotSameAs(second);
+        assertThat(second.getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void evictForcesReload() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 100, 300);
+
+        service.loadUserByUsername(EMAIL);
+        service.evict(EMAIL);
+        service.loadUserByUsername(EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        when(userRepository.findByEmail("nobody@skillshare.com")).thenReturn(Optional.empty());
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 100, 300);
+
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody@skillshare.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId("u1");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package com.skillshare.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "5465766D59713375426D756E5A72347558762E4429482B4D6251655468576D7A52";
+    private static final String OTHER_SECRET = "7A52466D59713375426D756E5A72347558762E4429482B4D6251655468576D54";
+    private static final String EMAIL = "alice@skillshare.com";
+
+    @Test
+    void generatedTokenValidatesToItsSubject() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken(EMAIL);
+
+        assertThat(jwtUtil.validateAndGetUsername(token)).contains(EMAIL);
+        // Second call is answered from the verified-token cache
+        assertThat(jwtUtil.validateAndGetUsername(token)).contains(EMAIL);
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, -1_000);
+
+        assertThat(jwtUtil.validateAndGetUsername(jwtUtil.generateToken(EMAIL))).isEmpty();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String foreign = jwtUtil(OTHER_SECRET, 60_000).generateToken(EMAIL);
+
+        assertThat(jwtUtil(SECRET, 60_000).validateAndGetUsername(foreign)).isEmpty();
+    }
+
+    @Test
+    void tamperedOrMalformedTokenIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken(EMAIL);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtil.validateAndGetUsername(tampered)).isEmpty();
+        assertThat(jwtUtil.validateAndGetUsername("not.a.jwt")).isEmpty();
+        assertThat(jwtUtil.validateAndGetUsername(null)).isEmpty();
+    }
+
+    private static JwtUtil jwtUtil(String secret, int expirationMs) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtil, "tokenCacheSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
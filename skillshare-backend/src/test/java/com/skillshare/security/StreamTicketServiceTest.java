@@ -0,0 +1,35 @@
+package com.skillshare.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamTicketServiceTest {
+
+    @Test
+    void ticketIsRedeemedExactlyOnce() {
+        StreamTicketService tickets = new StreamTicketService(30);
+        String ticket = tickets.issue("alice@skillshare.com");
+
+        assertThat(tickets.redeem(ticket)).contains("alice@skillshare.com");
+        assertThat(tickets.redeem(ticket)).isEmpty();
+    }
+
+    @Test
+    void ticketsAreUniqueAndUrlSafe() {
+        StreamTicketService tickets = new StreamTicketService(30);
+        String first = tickets.issue("alice@skillshare.com");
+        String second = tickets.issue("alice@skillshare.com");
+
+        assertThat(first).isNotEqualTo(second).matches("[A-Za-z0-9_-]{43}");
+    }
+
+    @Test
+    void unknownOrExpiredTicketIsRejected() {
+        StreamTicketService expiring = new StreamTicketService(0);
+        String ticket = expiring.issue("alice@skillshare.com");
+
+        assertThat(expiring.redeem(ticket)).isEmpty();
+        assertThat(expiring.redeem("forged")).isEmpty();
+    }
+}
@@ -0,0 +1,163 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CommentDto;
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Comment;
+import com.skillshare.model.Post;
+import com.skillshare.repository.CommentRepository;
+import com.skillshare.repository.PostRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentServiceTest {
+
+    @Mock
+    private CommentRepository commentRepo;
+    @Mock
+    private PostRepository postRepo;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MigrationService migrationService;
+
+    @InjectMocks
+    private CommentService commentService;
+
+    @Test
+    void commentIncrementsTheCount() {
+        when(commentRepo.save(any(Comment.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), "c1"));
+        when(postRepo.incrementCommentCount("p1", 1)).thenReturn(true);
+
+        Optional<Comment> added = commentService.addComment(commentDto("p1", "u1", "Nice"));
+
+        assertThat(added).get().satisfies(comment -> {
+            assertThat(comment.getId()).isEqualTo("c1");
+            assertThat(comment.getText()).isEqualTo("Nice");
+        });
+        verify(commentRepo, never()).deleteById(anyString());
+    }
+
+    @Test
+    void commentOnMissingPostIsRolledBack() {
+        when(commentRepo.save(any(Comment.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), "c1"));
+        when(postRepo.incrementCommentCount("gone", 1)).thenReturn(false);
+
+        assertThat(commentService.addComment(commentDto("gone", "u1", "Nice"))).isEmpty();
+
+        verify(commentRepo).deleteById("c1");
+    }
+
+    @Test
+    void fullPageReturnsCursorOfLastComment() {
+        when(commentRepo.findPage(eq("p1"), isNull(), eq(3))).thenReturn(List.of(
+                comment("c1", 1_000), comment("c2", 2_000), comment("c3", 3_000)));
+
+        CursorPage<Comment> page = commentService.getComments("p1", null, 2);
+
+        assertThat(page.getItems()).extracting(Comment::getId).containsExactly("c1", "c2");
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo("c2");
+        assertThat(next.getCreatedAt()).isEqualTo(new Date(2_000));
+    }
+
+    @Test
+    void lastPageOfCommentsHasNoCursor() {
+        String cursor = new PageCursor(new Date(2_000), "c2").encode();
+        when(commentRepo.findPage(eq("p1"), any(PageCursor.class), eq(CommentService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(comment("c3", 3_000)));
+
+        CursorPage<Comment> page = commentService.getComments("p1", cursor, null);
+
+        assertThat(page.getItems()).extracting(Comment::getId).containsExactly("c3");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void onlyTheCallerThatRemovedACommentDecrements() {
+        when(commentRepo.removeById("c1")).thenReturn(Optional.of(comment("c1", 1_000)), Optional.empty());
+
+        commentService.deleteComment("c1");
+        commentService.deleteComment("c1");
+
+        verify(postRepo, times(1)).incrementCommentCount("p1", -1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void backfillAddsCommentsBeforeTheCutoffInBatches() {
+        Date cutoff = new Date(10_000);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Date>>getArgument(1).accept(cutoff);
+            return null;
+        }).when(migrationService).runOnce(eq("post-comment-counts"), any());
+        when(mongoTemplate.stream(any(Query.class), eq(Post.class)))
+                .thenReturn(IntStream.range(0, 501).mapToObj(i -> postWithId(new Post(), "p" + i)));
+        List<Collection<String>> batches = new ArrayList<>();
+        when(commentRepo.countByPostIds(anyCollection(), eq(cutoff))).thenAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<String>>getArgument(0)));
+            return batches.size() == 1 ? Map.of("p0", 3L, "p7", 1L) : Map.of();
+        });
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+
+        commentService.backfillCommentCounts();
+
+        assertThat(batches).extracting(Collection::size).containsExactly(500, 1);
+        // $inc rather than $set: comments after the cutoff already counted themselves
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), updates.capture());
+        assertThat(updates.getAllValues()).extracting(update -> update.getUpdateObject().get("$inc", Document.class))
+                .containsExactlyInAnyOrder(new Document("commentCount", 3L), new Document("commentCount", 1L));
+        verify(bulk, times(1)).execute();
+    }
+
+    private static CommentDto commentDto(String postId, String userId, String text) {
+        CommentDto dto = new CommentDto();
+        dto.setPostId(postId);
+        dto.setUserId(userId);
+        dto.setText(text);
+        return dto;
+    }
+
+    private static Comment comment(String id, long createdAt) {
+        return new Comment(id, "p1", "u1", "text", new Date(createdAt));
+    }
+
+    private static Comment withId(Comment comment, String id) {
+        comment.setId(id);
+        return comment;
+    }
+
+    private static Post postWithId(Post post, String id) {
+        post.setId(id);
+        return post;
+    }
+}
@@ -0,0 +1,103 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.FeedItemDto;
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.Post;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceTest {
+
+    @Mock
+    private PostService postService;
+    @Mock
+    private TimelineService timelineService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private LikeService likeService;
+
+    @InjectMocks
+    private FeedService feedService;
+
+    @Test
+    void pageIsHydratedWithOneAuthorLookupAndOneLikeLookup() {
+        when(postService.getFeedPage("c0", 3)).thenReturn(new CursorPage<>(List.of(
+                post("p1", "alice", 2, 1), post("p2", "bob", 0, 5), post("p3", "alice", 7, 0)), "c1"));
+        when(userService.getUsersByIds(Set.of("alice", "bob"))).thenReturn(Map.of("alice", author("alice"), "bob", author("bob")));
+        when(likeService.getLikedPostIds("viewer", List.of("p1", "p2", "p3"))).thenReturn(Set.of("p3"));
+
+        CursorPage<FeedItemDto> page = feedService.getFeed("viewer", "c0", 3);
+
+        assertThat(page.getNextCursor()).isEqualTo("c1");
+        assertThat(page.getItems()).extracting(FeedItemDto::getId).containsExactly("p1", "p2", "p3");
+        assertThat(page.getItems()).extracting(item -> item.getAuthor().getId()).containsExactly("alice", "bob", "alice");
+        assertThat(page.getItems()).extracting(FeedItemDto::isLikedByViewer).containsExactly(false, false, true);
+        assertThat(page.getItems()).extracting(FeedItemDto::getLikeCount).containsExactly(2, 0, 7);
+        assertThat(page.getItems()).extracting(FeedItemDto::getCommentCount).containsExactly(1L, 5L, 0L);
+        verify(userService, times(1)).getUsersByIds(anyCollection());
+        verify(likeService, times(1)).getLikedPostIds(any(), any());
+    }
+
+    @Test
+    void anonymousViewerSkipsTheLikeLookup() {
+        when(postService.getPostsByUser("alice", null, 10)).thenReturn(new CursorPage<>(List.of(post("p1", "alice", 0, 0)), null));
+        when(userService.getUsersByIds(Set.of("alice"))).thenReturn(Map.of());
+
+        CursorPage<FeedItemDto> page = feedService.getPostsByUser("alice", null, null, 10);
+
+        // Deleted author: the card is still returned, without an author
+        assertThat(page.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getAuthor()).isNull();
+            assertThat(item.isLikedByViewer()).isFalse();
+        });
+        verifyNoInteractions(likeService);
+    }
+
+    @Test
+    void emptyPageMakesNoLookups() {
+        when(timelineService.getTimeline("reader", null, 20)).thenReturn(new CursorPage<>(List.of(), null));
+
+        assertThat(feedService.getTimeline("reader", null, 20).getItems()).isEmpty();
+
+        verifyNoInteractions(userService, likeService);
+    }
+
+    @Test
+    void lookupFailureIsRethrownUnwrapped() {
+        when(postService.getFeedPage(null, null)).thenReturn(new CursorPage<>(List.of(post("p1", "alice", 0, 0)), null));
+        when(userService.getUsersByIds(anyCollection())).thenThrow(new IllegalStateException("users down"));
+
+        assertThatThrownBy(() -> feedService.getFeed(null, null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("users down");
+    }
+
+    private static Post post(String id, String userId, int likeCount, int commentCount) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setLikeCount(likeCount);
+        post.setCommentCount(commentCount);
+        return post;
+    }
+
+    private static UserDto author(String id) {
+        return new UserDto(id, "First " + id, "Last", null, null, 0, 0);
+    }
+}
@@ -0,0 +1,213 @@
+package com.skillshare.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Follow;
+import com.skillshare.model.User;
+import com.skillshare.repository.FollowRepository;
+import com.skillshare.repository.UserRepository;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FollowServiceTest {
+
+    @Mock
+    private FollowRepository followRepo;
+    @Mock
+    private UserRepository userRepo;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MigrationService migrationService;
+
+    @InjectMocks
+    private FollowService followService;
+
+    @Test
+    void newEdgeMovesBothCounters() {
+        when(followRepo.upsert("alice", "bob")).thenReturn(true);
+        when(followRepo.deleteByFollowerIdAndFolloweeId("alice", "bob")).thenReturn(1L);
+
+        assertThat(followService.follow("alice", "bob")).isTrue();
+        assertThat(followService.unfollow("alice", "bob")).isTrue();
+
+        verify(userRepo).incrementFollowCounts("alice", "bob", 1);
+        verify(userRepo).incrementFollowCounts("alice", "bob", -1);
+    }
+
+    @Test
+    void removedUserLosesEveryEdgeAndTheOtherEndsAreRecounted() {
+        doAnswer(invocation -> {
+            Consumer<List<String>> consumer = invocation.getArgument(2);
+            consumer.accept(List.of("f1", "f2"));
+            consumer.accept(List.of("f3"));
+            return null;
+        }).when(followRepo).forEachFollowerIdBatch(eq("gone"), anyInt(), any());
+        when(followRepo.findFollowingIds("gone")).thenReturn(List.of("x1"));
+
+        followService.removeUser("gone");
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).updateMulti(any(Query.class), updates.capture(), eq(User.class));
+        assertThat(updates.getAllValues()).extracting(update -> update.getUpdateObject().get("$inc", Document.class))
+                .containsExactly(new Document("followingCount", -1), new Document("followingCount", -1),
+                        new Document("followerCount", -1));
+        verify(followRepo).deleteByFolloweeId("gone");
+        verify(followRepo).deleteByFollowerId("gone");
+    }
+
+    @Test
+    void isFollowingLooksUpTheDirectedEdge() {
+        when(followRepo.existsByFollowerIdAndFolloweeId("alice", "bob")).thenReturn(true);
+
+        assertThat(followService.isFollowing("alice", "bob")).isTrue();
+        assertThat(followService.isFollowing("bob", "alice")).isFalse();
+    }
+
+    @Test
+    void followersArePagedNewestFirstWithAKeysetCursor() {
+        Date newer = new Date(2_000);
+        Date older = new Date(1_000);
+        when(followRepo.findFollowers(eq("bob"), isNull(), eq(3))).thenReturn(List.of(
+                new Follow("e3", "f3", "bob", newer),
+                new Follow("e2", "f2", "bob", older),
+                new Follow("e1", "f1", "bob", older)));
+
+        CursorPage<String> page = followService.getFollowers("bob", null, 2);
+
+        assertThat(page.getItems()).containsExactly("f3", "f2");
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertThat(next.getCreatedAt()).isEqualTo(older);
+        assertThat(next.getId()).isEqualTo("e2");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        PageCursor before = new PageCursor(new Date(5_000), "e9");
+        when(followRepo.findFollowing(eq("alice"), any(PageCursor.class), eq(FollowService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(new Follow("e1", "alice", "bob", new Date(1_000))));
+
+        CursorPage<String> page = followService.getFollowing("alice", before.encode(), null);
+
+        assertThat(page.getItems()).containsExactly("bob");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void embeddedSetsAreMigratedToEdgesAndOnlyInsertedEdgesAreCounted() {
+        runMigrationsImmediately();
+        Document legacy = new Document("_id", "alice")
+                .append("followers", List.of("f1", "f2"))
+                .append("following", List.of("bob"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.of(legacy));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class)).thenReturn(bulk);
+        // f2 already followed alice through the current code, so that edge is counted already
+        BulkOperationException duplicate = bulkFailure(1, 11000);
+        when(bulk.execute()).thenThrow(duplicate);
+
+        followService.migrateEmbeddedFollows();
+
+        ArgumentCaptor<Follow> edges = ArgumentCaptor.forClass(Follow.class);
+        verify(bulk, times(3)).insert(edges.capture());
+        assertThat(edges.getAllValues()).extracting(edge -> edge.getFollowerId() + "->" + edge.getFolloweeId())
+                .containsExactly("f1->alice", "f2->alice", "alice->bob");
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).updateFirst(queries.capture(), updates.capture(), eq(User.class));
+        Map<Object, Document> byUser = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            byUser.put(queries.getAllValues().get(i).getQueryObject().get("_id"), updates.getAllValues().get(i).getUpdateObject());
+        }
+        assertThat(byUser).containsOnlyKeys("alice", "f1", "bob");
+
+        Document alice = byUser.get("alice");
+        assertThat(alice).doesNotContainKey("$set");
+        assertThat(alice.get("$inc", Document.class))
+                .containsEntry("followerCount", 1)
+                .containsEntry("followingCount", 1);
+        assertThat(alice.get("$unset", Document.class)).containsKeys("followers", "following");
+
+        assertThat(byUser.get("f1").get("$inc", Document.class)).containsEntry("followingCount", 1).containsEntry("followerCount", 0);
+        assertThat(byUser.get("f1")).doesNotContainKey("$unset");
+        assertThat(byUser.get("bob").get("$inc", Document.class)).containsEntry("followerCount", 1);
+    }
+
+    @Test
+    void migrationKeepsTheEmbeddedSetsWhenAnInsertFails() {
+        runMigrationsImmediately();
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+                .thenReturn(Stream.of(new Document("_id", "alice").append("following", List.of("bob"))));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class)).thenReturn(bulk);
+        BulkOperationException failure = bulkFailure(0, 121);
+        when(bulk.execute()).thenThrow(failure);
+
+        assertThatThrownBy(() -> followService.migrateEmbeddedFollows()).isSameAs(failure);
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(User.class));
+    }
+
+    @Test
+    void migrationWithoutLegacyUsersWritesNothing() {
+        runMigrationsImmediately();
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.empty());
+
+        followService.migrateEmbeddedFollows();
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(User.class));
+    }
+
+    @Test
+    void migrationIsGatedOnItsMarker() {
+        followService.migrateEmbeddedFollows();
+
+        verify(migrationService).runOnce(eq("user-embedded-follows"), any());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runMigrationsImmediately() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Date>>getArgument(1).accept(new Date());
+            return null;
+        }).when(migrationService).runOnce(eq("user-embedded-follows"), any());
+    }
+
+    private static BulkOperationException bulkFailure(int index, int code) {
+        BulkOperationException e = mock(BulkOperationException.class);
+        when(e.getErrors()).thenReturn(List.of(new BulkWriteError(code, "E" + code, new BsonDocument(), index)));
+        return e;
+    }
+}
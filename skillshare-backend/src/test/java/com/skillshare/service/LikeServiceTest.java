@@ -0,0 +1,170 @@
+package com.skillshare.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.skillshare.model.PostLike;
+import com.skillshare.repository.LikeRepository;
+import com.skillshare.repository.PostRepository;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeServiceTest {
+
+    @Mock
+    private LikeRepository likeRepo;
+    @Mock
+    private PostRepository postRepo;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MigrationService migrationService;
+
+    @InjectMocks
+    private LikeService likeService;
+
+    private final ObjectId postId = new ObjectId();
+    private BulkOperations bulk;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void runMigrationsImmediately() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Date>>getArgument(1).accept(new Date());
+            return null;
+        }).when(migrationService).runOnce(eq("post-embedded-likes"), any());
+        bulk = mock(BulkOperations.class);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostLike.class)).thenReturn(bulk);
+        lenient().when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("posts")))
+                .thenAnswer(invocation -> Stream.of(new Document("_id", postId).append("likedUserIds", List.of("u1", "u2", "u3"))));
+    }
+
+    @Test
+    void firstLikeInsertsRowAndIncrementsCount() {
+        when(postRepo.incrementLikeCount("p1", 1)).thenReturn(true);
+
+        assertThat(likeService.likePost("p1", "u1")).isTrue();
+
+        verify(likeRepo).insert(any(PostLike.class));
+        verify(postRepo).incrementLikeCount("p1", 1);
+    }
+
+    @Test
+    void repeatedLikeDoesNotIncrementCount() {
+        when(likeRepo.insert(any(PostLike.class))).thenThrow(new DuplicateKeyException("post_user_unique"));
+
+        assertThat(likeService.likePost("p1", "u1")).isFalse();
+
+        verify(postRepo, never()).incrementLikeCount(anyString(), anyInt());
+    }
+
+    @Test
+    void likeOnMissingPostIsRolledBack() {
+        when(postRepo.incrementLikeCount("gone", 1)).thenReturn(false);
+
+        assertThat(likeService.likePost("gone", "u1")).isFalse();
+
+        verify(likeRepo).deleteByPostIdAndUserId("gone", "u1");
+    }
+
+    @Test
+    void unlikeDecrementsOnlyWhenALikeWasRemoved() {
+        when(likeRepo.deleteByPostIdAndUserId("p1", "u1")).thenReturn(1L, 0L);
+
+        assertThat(likeService.unlikePost("p1", "u1")).isTrue();
+        assertThat(likeService.unlikePost("p1", "u1")).isFalse();
+
+        verify(postRepo, times(1)).incrementLikeCount("p1", -1);
+    }
+
+    @Test
+    void likedPostIdsComeFromOneQuery() {
+        when(likeRepo.findByUserIdAndPostIdIn("u1", List.of("p1", "p2", "p3")))
+                .thenReturn(List.of(new PostLike("l1", "p1", "u1", new Date()), new PostLike("l3", "p3", "u1", new Date())));
+
+        assertThat(likeService.getLikedPostIds("u1", List.of("p1", "p2", "p3"))).containsExactlyInAnyOrder("p1", "p3");
+    }
+
+    @Test
+    void likedPostIdsWithoutViewerOrPostsSkipTheQuery() {
+        assertThat(likeService.getLikedPostIds(null, List.of("p1"))).isEmpty();
+        assertThat(likeService.getLikedPostIds("u1", List.of())).isEmpty();
+
+        verifyNoInteractions(likeRepo);
+    }
+
+    @Test
+    void migrationAddsOnlyInsertedLikesAndDropsTheLegacyField() {
+        // u2 liked again through the new path before the migration ran: that like is already in likeCount
+        BulkOperationException duplicates = bulkFailure(2, 11000);
+        when(bulk.execute()).thenThrow(duplicates);
+
+        likeService.migrateEmbeddedLikes();
+
+        verify(bulk, times(3)).insert(any(PostLike.class));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq("posts"));
+        assertThat(query.getValue().getQueryObject()).containsKey("likedUserIds");
+        Document updateObject = update.getValue().getUpdateObject();
+        assertThat(updateObject.get("$inc", Document.class)).containsEntry("likeCount", 2);
+        assertThat(updateObject.get("$unset", Document.class)).containsKey("likedUserIds");
+        assertThat(updateObject).doesNotContainKey("$set");
+    }
+
+    @Test
+    void migrationKeepsTheLegacyFieldWhenTheInsertFails() {
+        BulkOperationException failure = bulkFailure(2, 121);
+        when(bulk.execute()).thenThrow(failure);
+
+        assertThatThrownBy(() -> likeService.migrateEmbeddedLikes()).isSameAs(failure);
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void migrationIsGatedOnItsMarker() {
+        reset(migrationService);
+
+        likeService.migrateEmbeddedLikes();
+
+        verify(migrationService).runOnce(eq("post-embedded-likes"), any());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static BulkOperationException bulkFailure(int inserted, int code) {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        lenient().when(result.getInsertedCount()).thenReturn(inserted);
+        BulkOperationException e = mock(BulkOperationException.class);
+        lenient().when(e.getErrors()).thenReturn(List.of(new BulkWriteError(code, "E" + code, new BsonDocument(), 1)));
+        lenient().when(e.getResult()).thenReturn(result);
+        return e;
+    }
+}
@@ -0,0 +1,184 @@
+package com.skillshare.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.skillshare.model.MealPlan;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealPlanReminderSchedulerTest {
+
+    private static final long LEAD_MS = TimeUnit.MINUTES.toMillis(1440);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private MealPlanReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "leadMinutes", 1440L);
+        ReflectionTestUtils.setField(scheduler, "horizonMinutes", 60L);
+        ReflectionTestUtils.setField(scheduler, "deadlineZone", "UTC");
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    // ---------- parsing ----------
+
+    @Test
+    void deadlinesAreParsedLeniently() {
+        assertThat(scheduler.parseDeadline("2030-06-01T18:00:00+02:00")).isEqualTo(Date.from(Instant.parse("2030-06-01T16:00:00Z")));
+        assertThat(scheduler.parseDeadline(" 2030-06-01T18:00 ")).isEqualTo(Date.from(Instant.parse("2030-06-01T18:00:00Z")));
+        // A plain date means the end of that day
+        assertThat(scheduler.parseDeadline("2030-06-01")).isEqualTo(Date.from(Instant.parse("2030-06-01T23:59:59.999999999Z")));
+    }
+
+    @Test
+    void unparseableDeadlinesAreNull() {
+        assertThat(scheduler.parseDeadline(null)).isNull();
+        assertThat(scheduler.parseDeadline("  ")).isNull();
+        assertThat(scheduler.parseDeadline("next Friday")).isNull();
+        assertThat(scheduler.parseDeadline("2030-13-01")).isNull();
+    }
+
+    @Test
+    void reminderFiresTheLeadTimeBeforeTheDeadline() {
+        Date deadline = new Date(System.currentTimeMillis() + 3 * LEAD_MS);
+
+        assertThat(scheduler.reminderFor(deadline)).isEqualTo(new Date(deadline.getTime() - LEAD_MS));
+    }
+
+    @Test
+    void reminderInsideTheLeadTimeIsImmediateAndNoneAfterTheDeadline() {
+        long before = System.currentTimeMillis();
+        Date soon = scheduler.reminderFor(new Date(before + 60_000));
+
+        assertThat(soon.getTime()).isBetween(before, System.currentTimeMillis());
+        assertThat(scheduler.reminderFor(new Date(before - 1))).isNull();
+        assertThat(scheduler.reminderFor(null)).isNull();
+    }
+
+    // ---------- persistence ----------
+
+    @Test
+    void rearmIsGuardedOnTheDeadlineItWasComputedFor() {
+        Date deadline = new Date(System.currentTimeMillis() + 3 * LEAD_MS);
+
+        Date reminderAt = scheduler.rearm("m1", deadline);
+        scheduler.rearm("m1", null);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(queries.capture(), updates.capture(), eq(MealPlan.class));
+        assertThat(queries.getAllValues().get(0).getQueryObject()).containsEntry("_id", "m1").containsEntry("deadlineAt", deadline);
+        assertThat(updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class)).containsEntry("reminderAt", reminderAt);
+        assertThat(updates.getAllValues().get(1).getUpdateObject().get("$unset", Document.class)).containsKey("reminderAt");
+    }
+
+    @Test
+    void legacyDeadlinesAreBackfilledOnStart() {
+        MealPlan legacy = plan("m1", null);
+        legacy.setDeadline("2099-01-01");
+        when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenReturn(Stream.of(legacy), Stream.empty());
+
+        scheduler.start();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(MealPlan.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("deadlineAt")).isEqualTo(scheduler.parseDeadline("2099-01-01"));
+        assertThat(set).containsKey("reminderAt");
+    }
+
+    // ---------- firing ----------
+
+    @Test
+    void reminderInTheWindowIsClaimedAndSent() {
+        MealPlan due = plan("m1", new Date(System.currentTimeMillis() + 50));
+        when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenReturn(Stream.empty(), Stream.of(due));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MealPlan.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        scheduler.start();
+
+        verify(notificationService, timeout(5000)).sendNotification(eq("u1"), eq("u1"), eq("deadline"), eq(null), anyString());
+    }
+
+    // Another instance (or an edit) got there first
+    @Test
+    void lostClaimSendsNothing() {
+        MealPlan due = plan("m1", new Date(System.currentTimeMillis() + 50));
+        when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenReturn(Stream.empty(), Stream.of(due));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MealPlan.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 0L, null));
+
+        scheduler.start();
+
+        verify(mongoTemplate, timeout(5000)).updateFirst(any(Query.class), any(Update.class), eq(MealPlan.class));
+        verify(notificationService, after(200).never()).sendNotification(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void cancelledReminderIsSkipped() {
+        when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenAnswer(invocation -> Stream.empty());
+        scheduler.start();
+        verify(mongoTemplate, timeout(5000).times(2)).stream(any(Query.class), eq(MealPlan.class));
+
+        scheduler.schedule(plan("m1", new Date(System.currentTimeMillis() + 100)));
+        scheduler.cancel("m1");
+
+        verify(mongoTemplate, after(400).never()).updateFirst(any(Query.class), any(Update.class), eq(MealPlan.class));
+        verifyNoInteractions(notificationService);
+    }
+
+    // Past the loaded window: left to a later window load instead of being held in memory
+    @Test
+    void reminderBeyondTheHorizonIsNotQueued() {
+        when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenAnswer(invocation -> Stream.empty());
+        scheduler.start();
+        verify(mongoTemplate, timeout(5000).times(2)).stream(any(Query.class), eq(MealPlan.class));
+
+        scheduler.schedule(plan("m1", new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(61))));
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(scheduler, "pending")).isEmpty();
+    }
+
+    private static MealPlan plan(String id, Date reminderAt) {
+        MealPlan plan = new MealPlan();
+        plan.setId(id);
+        plan.setUserId("u1");
+        plan.setTitle("Plan " + id);
+        plan.setReminderAt(reminderAt);
+        return plan;
+    }
+}
@@ -0,0 +1,161 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.model.MealPlan;
+import com.skillshare.repository.MealPlanRepository;
+import com.skillshare.repository.TopicCountRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MealPlanServiceTest {
+
+    @Mock
+    private MealPlanRepository mealPlanRepo;
+    @Mock
+    private TopicCountRepository topicCountRepo;
+    @Mock
+    private SearchService searchService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MealPlanReminderScheduler reminderScheduler;
+    @Mock
+    private MigrationService migrationService;
+
+    @InjectMocks
+    private MealPlanService mealPlanService;
+
+    @Test
+    void createdPlanHasNormalizedTopicsAndCountsEachOnce() {
+        when(mealPlanRepo.save(any(MealPlan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MealPlan saved = mealPlanService.createPlan(plan("m1", Arrays.asList("  Keto ", "keto", "", null, "Vegan")));
+
+        assertThat(saved.getTopics()).containsExactly("keto", "vegan");
+        verify(topicCountRepo).applyDeltas(Map.of("keto", 1L, "vegan", 1L));
+    }
+
+    @Test
+    void editAppliesOnlyTheTopicDifference() {
+        MealPlan previous = plan("m1", List.of("keto", "vegan"));
+        when(mealPlanRepo.updateAndGetPrevious(eq("m1"), any(Update.class))).thenReturn(Optional.of(previous));
+
+        Optional<MealPlan> saved = mealPlanService.updatePlan("m1", plan(null, List.of(" Vegan", "paleo")));
+
+        assertThat(saved).get().extracting(MealPlan::getTopics).isEqualTo(List.of("vegan", "paleo"));
+        verify(topicCountRepo).applyDeltas(Map.of("paleo", 1L, "keto", -1L));
+    }
+
+    @Test
+    void editOfMissingPlanChangesNoCounts() {
+        when(mealPlanRepo.updateAndGetPrevious(eq("gone"), any(Update.class))).thenReturn(Optional.empty());
+
+        assertThat(mealPlanService.updatePlan("gone", plan(null, List.of("keto")))).isEmpty();
+
+        verifyNoInteractions(topicCountRepo, searchService);
+    }
+
+    @Test
+    void onlyTheCallerThatRemovedAPlanDecrements() {
+        when(mealPlanRepo.removeById("m1")).thenReturn(Optional.of(plan("m1", List.of("keto"))), Optional.empty());
+
+        mealPlanService.deletePlan("m1");
+        mealPlanService.deletePlan("m1");
+
+        verify(topicCountRepo, times(1)).applyDeltas(Map.of("keto", -1L));
+        verify(searchService, times(2)).deleteMealPlan("m1");
+    }
+
+    @Test
+    void topicPageIsNormalizedAndEndsWithTheLastIdAsCursor() {
+        when(mealPlanRepo.findByTopicPage("keto", null, 3)).thenReturn(List.of(plan("m3", null), plan("m2", null), plan("m1", null)));
+
+        CursorPage<MealPlan> page = mealPlanService.getPlansByTopic(" KETO ", null, 2);
+
+        assertThat(page.getItems()).extracting(MealPlan::getId).containsExactly("m3", "m2");
+        assertThat(page.getNextCursor()).isEqualTo("m2");
+    }
+
+    @Test
+    void malformedTopicCursorIsRejected() {
+        assertThatThrownBy(() -> mealPlanService.getPlansByTopic("keto", "nope", null)).isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(mealPlanRepo);
+    }
+
+    @Test
+    void topTopicsLimitIsCapped() {
+        mealPlanService.getTopTopics(null);
+        mealPlanService.getTopTopics(10_000);
+
+        verify(topicCountRepo).findTop(MealPlanService.DEFAULT_TOP_TOPICS);
+        verify(topicCountRepo).findTop(MealPlanService.MAX_TOP_TOPICS);
+    }
+
+    // Runs under a migration marker, so a restart never adds the same counts twice
+    @Test
+    void backfillCountsPlansFromBeforeTheCutoffAndNormalizesThem() {
+        Date cutoff = new Date(1_717_000_000_000L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Date>>getArgument(1).accept(cutoff);
+            return null;
+        }).when(migrationService).runOnce(eq("mealplan-topic-counts"), any());
+        ArgumentCaptor<Query> legacy = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.stream(legacy.capture(), eq(MealPlan.class))).thenReturn(Stream.of(
+                plan("m1", List.of("keto", "vegan")),
+                plan("m2", new ArrayList<>(List.of("Keto ", "paleo")))));
+
+        mealPlanService.backfillTopicCounts();
+
+        Document idFilter = legacy.getValue().getQueryObject().get("_id", Document.class);
+        assertThat(idFilter).containsEntry("$lt", ObjectId.getSmallestWithDate(cutoff));
+        ArgumentCaptor<Update> rewrite = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), rewrite.capture(), eq(MealPlan.class));
+        assertThat(rewrite.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("topics", List.of("keto", "paleo"));
+        verify(topicCountRepo).applyDeltas(Map.of("keto", 2L, "vegan", 1L, "paleo", 1L));
+    }
+
+    @Test
+    void backfillAlreadyRunDoesNothing() {
+        mealPlanService.backfillTopicCounts();
+
+        verifyNoInteractions(mongoTemplate);
+        verify(topicCountRepo, never()).applyDeltas(anyMap());
+    }
+
+    private static MealPlan plan(String id, List<String> topics) {
+        MealPlan plan = new MealPlan();
+        plan.setId(id);
+        plan.setUserId("u1");
+        plan.setTitle("Plan " + id);
+        plan.setTopics(topics);
+        return plan;
+    }
+}
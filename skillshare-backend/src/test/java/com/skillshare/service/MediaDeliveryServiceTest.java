@@ -0,0 +1,226 @@
+package com.skillshare.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaDeliveryServiceTest {
+
+    private static final Path ROOT = Paths.get("uploads");
+
+    private final MediaDeliveryService delivery = new MediaDeliveryService();
+    private final List<Path> created = new ArrayList<>();
+
+    private String sha256;
+    private String fileName;
+    private String etag;
+    private byte[] content;
+
+    @BeforeEach
+    void storeOriginal() throws IOException {
+        byte[] hash = new byte[32];
+        ThreadLocalRandom.current().nextBytes(hash);
+        sha256 = HexFormat.of().formatHex(hash);
+        fileName = sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".jpg";
+        etag = "\"" + sha256 + "\"";
+        content = new byte[1000];
+        ThreadLocalRandom.current().nextBytes(content);
+        write(fileName, content);
+    }
+
+    @AfterEach
+    void removeFiles() throws IOException {
+        for (Path path : created) {
+            Files.deleteIfExists(path);
+        }
+        // ab/cd shard directories, if nothing else lives there
+        for (Path dir = ROOT.resolve(fileName).getParent(); !dir.equals(ROOT); dir = dir.getParent()) {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (DirectoryNotEmptyException e) {
+                break;
+            }
+        }
+    }
+
+    // ---------- parseRange ----------
+
+    @Test
+    void parsesSingleRanges() {
+        assertThat(MediaDeliveryService.parseRange("bytes=0-99", 1000)).isEqualTo(new MediaDeliveryService.ByteRange(0, 99));
+        assertThat(MediaDeliveryService.parseRange("bytes=900-", 1000)).isEqualTo(new MediaDeliveryService.ByteRange(900, 999));
+        assertThat(MediaDeliveryService.parseRange("bytes=-100", 1000)).isEqualTo(new MediaDeliveryService.ByteRange(900, 999));
+        // End past the file is clamped, a suffix longer than the file is the whole file
+        assertThat(MediaDeliveryService.parseRange("bytes=990-5000", 1000)).isEqualTo(new MediaDeliveryService.ByteRange(990, 999));
+        assertThat(MediaDeliveryService.parseRange("bytes=-5000", 1000)).isEqualTo(new MediaDeliveryService.ByteRange(0, 999));
+    }
+
+    @Test
+    void unsatisfiableRanges() {
+        assertThat(MediaDeliveryService.parseRange("bytes=1000-", 1000)).isSameAs(MediaDeliveryService.ByteRange.UNSATISFIABLE);
+        assertThat(MediaDeliveryService.parseRange("bytes=-0", 1000)).isSameAs(MediaDeliveryService.ByteRange.UNSATISFIABLE);
+        assertThat(MediaDeliveryService.parseRange("bytes=-10", 0)).isSameAs(MediaDeliveryService.ByteRange.UNSATISFIABLE);
+    }
+
+    // null: ignore the header and send the full body
+    @Test
+    void ignoredRangeHeaders() {
+        assertThat(MediaDeliveryService.parseRange("bytes=0-1,5-6", 1000)).isNull();
+        assertThat(MediaDeliveryService.parseRange("items=0-1", 1000)).isNull();
+        assertThat(MediaDeliveryService.parseRange("bytes=abc", 1000)).isNull();
+        assertThat(MediaDeliveryService.parseRange("bytes=x-y", 1000)).isNull();
+        assertThat(MediaDeliveryService.parseRange("bytes=500-100", 1000)).isNull();
+    }
+
+    // ---------- serve ----------
+
+    @Test
+    void servesContentAddressedFileWithHashEtagAndImmutableCaching() throws IOException {
+        MockHttpServletResponse response = serve(fileName, null, get());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+
+        MockHttpServletResponse response = serve(fileName, null, request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void rangeRequestGetsPartialContent() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+
+        MockHttpServletResponse response = serve(fileName, null, request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = serve(fileName, null, request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void matchingIfRangeGetsThePart() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-10");
+        request.addHeader(HttpHeaders.IF_RANGE, etag);
+
+        MockHttpServletResponse response = serve(fileName, null, request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 990, 1000));
+    }
+
+    @Test
+    void rangeBeyondTheFileIsNotSatisfiable() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5000-");
+
+        MockHttpServletResponse response = serve(fileName, null, request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws IOException {
+        MockHttpServletResponse response = serve(fileName, null, new MockHttpServletRequest("HEAD", "/media/" + fileName));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(1000);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void existingRenditionIsServedImmutable() throws IOException {
+        byte[] small = {1, 2, 3};
+        write(RenditionService.renditionName(fileName, 320), small);
+
+        MockHttpServletResponse response = serve(fileName, 300, get());
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(small);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + sha256 + "_w320\"");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    // The rendition may appear later: the original must not be pinned in caches under the ?w= URL
+    @Test
+    void missingRenditionFallsBackToOriginalWithoutImmutableCaching() throws IOException {
+        MockHttpServletResponse response = serve(fileName, 300, get());
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(delivery.stats()).containsEntry("renditionFallbacks", 1L);
+    }
+
+    @Test
+    void widthAboveEveryRenditionServesTheOriginalImmutable() throws IOException {
+        MockHttpServletResponse response = serve(fileName, 4000, get());
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    void pathsOutsideUploadsAreNotFound() throws IOException {
+        assertThat(serve("../pom.xml", null, get()).getStatus()).isEqualTo(404);
+        assertThat(serve(".tmp/upload-1.part", null, get()).getStatus()).isEqualTo(404);
+        assertThat(serve("missing.jpg", null, get()).getStatus()).isEqualTo(404);
+        assertThat(serve(null, null, get()).getStatus()).isEqualTo(404);
+    }
+
+    private MockHttpServletResponse serve(String path, Integer width, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        delivery.serve(path, width, request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/media/" + fileName);
+    }
+
+    private void write(String name, byte[] bytes) throws IOException {
+        Path path = ROOT.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.write(path, bytes);
+        created.add(path);
+    }
+}
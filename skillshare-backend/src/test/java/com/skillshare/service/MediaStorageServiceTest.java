@@ -0,0 +1,161 @@
+package com.skillshare.service;
+
+import com.skillshare.model.MediaObject;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Works in the real uploads/ directory (the store has no other root); every file it creates is removed afterwards
+@ExtendWith(MockitoExtension.class)
+class MediaStorageServiceTest {
+
+    private static final Path ROOT = Paths.get("uploads");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MediaStorageService mediaStorage;
+
+    private final List<Path> created = new ArrayList<>();
+
+    // In-memory stand-in for the media collection, keyed by sha256
+    private final Map<String, MediaObject> mediaDocuments = new HashMap<>();
+
+    @BeforeEach
+    void mediaDocumentsBehaveLikeTheUpsert() {
+        // $inc refCount, $setOnInsert path/size, returnNew: the first upload of some content decides its path
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MediaObject.class)))
+                .thenAnswer(invocation -> {
+                    Document onInsert = invocation.<Update>getArgument(1).getUpdateObject().get("$setOnInsert", Document.class);
+                    String path = onInsert.getString("path");
+                    MediaObject media = mediaDocuments.computeIfAbsent(path.substring(6, 70),
+                            sha256 -> new MediaObject(sha256, path, onInsert.getLong("size"), 0, new Date()));
+                    media.setRefCount(media.getRefCount() + 1);
+                    return media;
+                });
+    }
+
+    @AfterEach
+    void removeStoredFiles() throws IOException {
+        for (Path path : created) {
+            Files.deleteIfExists(path);
+            // ab/cd shard directories, if nothing else lives there
+            for (Path dir = path.getParent(); dir != null && !dir.equals(ROOT); dir = dir.getParent()) {
+                try {
+                    Files.deleteIfExists(dir);
+                } catch (DirectoryNotEmptyException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Test
+    void uploadIsStreamedToItsContentAddress() throws Exception {
+        byte[] content = randomBytes(600 * 1024);   // several transfer chunks
+
+        MediaStorageService.StoredMedia stored = mediaStorage.store(new MockMultipartFile("file", "Photo.JPG", "image/jpeg", content));
+        Path file = track(stored.fileName());
+
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertThat(stored.sha256()).isEqualTo(sha256);
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(stored.fileName()).isEqualTo(sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".jpg");
+        assertThat(Files.readAllBytes(file)).isEqualTo(content);
+    }
+
+    @Test
+    void emptyUploadIsStored() throws Exception {
+        MediaStorageService.StoredMedia stored = mediaStorage.store(new MockMultipartFile("file", "empty.png", "image/png", new byte[0]));
+        Path file = track(stored.fileName());
+
+        assertThat(stored.size()).isZero();
+        assertThat(Files.size(file)).isZero();
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        byte[] content = randomBytes(4096);
+
+        MediaStorageService.StoredMedia first = mediaStorage.store(new MockMultipartFile("file", "a.jpg", "image/jpeg", content));
+        MediaStorageService.StoredMedia second = mediaStorage.store(new MockMultipartFile("file", "b.jpeg", "image/jpeg", content));
+        Path file = track(first.fileName());
+
+        assertThat(second.fileName()).isEqualTo(first.fileName());
+        assertThat(mediaDocuments.get(first.sha256()).getRefCount()).isEqualTo(2);
+        assertThat(Files.readAllBytes(file)).isEqualTo(content);
+        try (Stream<Path> shard = Files.list(file.getParent())) {
+            assertThat(shard.filter(p -> p.getFileName().toString().startsWith(first.sha256()))).hasSize(1);
+        }
+    }
+
+    @Test
+    void fileIsDeletedWithTheLastReferenceOnly() throws Exception {
+        MediaStorageService.StoredMedia stored = mediaStorage.store(new MockMultipartFile("file", "a.jpg", "image/jpeg", randomBytes(1024)));
+        Path file = track(stored.fileName());
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(MediaObject.class)))
+                .thenReturn(null, mediaDocuments.get(stored.sha256()));
+
+        mediaStorage.release(stored.fileName());
+        assertThat(file).exists();
+
+        mediaStorage.release(stored.fileName());
+        assertThat(file).doesNotExist();
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(MediaObject.class));
+    }
+
+    @Test
+    void legacyUploadIsDeletedWithoutTouchingMediaDocuments() throws Exception {
+        Path legacy = track("0b5f3c1e-5d2a-4c11-9a57-5c1c2c7d9e10_photo.jpg");
+        Files.createDirectories(ROOT);
+        Files.write(legacy, randomBytes(16));
+
+        mediaStorage.release(legacy.getFileName().toString());
+
+        assertThat(legacy).doesNotExist();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private Path track(String fileName) {
+        Path path = ROOT.resolve(fileName);
+        created.add(path);
+        return path;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.skillshare.service;
+
+import com.skillshare.repository.MigrationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationServiceTest {
+
+    @Mock
+    private MigrationRepository migrationRepo;
+
+    @InjectMocks
+    private MigrationService migrationService;
+
+    @Test
+    void claimedMigrationRunsWithTheStartupCutoffAndCompletes() {
+        when(migrationRepo.claim(eq("m1"), any(Date.class))).thenReturn(true);
+        List<Date> cutoffs = new ArrayList<>();
+
+        migrationService.runOnce("m1", cutoffs::add);
+
+        assertThat(cutoffs).hasSize(1);
+        assertThat(cutoffs.get(0)).isBeforeOrEqualTo(new Date());
+        verify(migrationRepo).complete("m1");
+    }
+
+    @Test
+    void alreadyClaimedMigrationIsSkipped() {
+        when(migrationRepo.claim(eq("m1"), any(Date.class))).thenReturn(false);
+        List<Date> cutoffs = new ArrayList<>();
+
+        migrationService.runOnce("m1", cutoffs::add);
+
+        assertThat(cutoffs).isEmpty();
+        verify(migrationRepo, never()).complete(anyString());
+    }
+
+    // The marker stays without completedAt, so a restart does not apply the same $inc deltas twice
+    @Test
+    void failedMigrationKeepsItsMarkerAndDoesNotThrow() {
+        when(migrationRepo.claim(eq("m1"), any(Date.class))).thenReturn(true);
+
+        assertThatCode(() -> migrationService.runOnce("m1", cutoff -> {
+            throw new IllegalStateException("boom");
+        })).doesNotThrowAnyException();
+
+        verify(migrationRepo, never()).complete(anyString());
+    }
+}
@@ -0,0 +1,211 @@
+package com.skillshare.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.UpdateResult;
+import com.skillshare.model.Notification;
+import com.skillshare.repository.NotificationCounterRepository;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    // Fixed, so notifications built in one test always share a coalescing window
+    private static final long NOW = 1_717_000_000_000L;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private NotificationCounterRepository counterRepo;
+    @Mock
+    private NotificationStreamService streamService;
+
+    @InjectMocks
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 500);
+        ReflectionTestUtils.setField(dispatcher, "pollIntervalMs", 10L);
+        ReflectionTestUtils.setField(dispatcher, "shutdownTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "coalesceWindowMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "recentSenders", 5);
+    }
+
+    // Not started (or already stopped): the caller persists inline instead of dropping the notification
+    @Test
+    void writesInlineWhenNotRunning() {
+        Notification follow = notification("u1", "fan", "follow", null);
+
+        dispatcher.submit(follow);
+
+        verify(mongoTemplate).insertAll(List.of(follow));
+        verify(counterRepo).incrementUnread(Map.of("u1", 1L));
+        verify(streamService).publish(follow);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void queuedNotificationsArePersistedByStop() {
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Notification.class)).thenReturn(indexOps);
+        dispatcher.start();
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.submit(notification("u" + i, "fan", "follow", null));
+        }
+        dispatcher.stop();
+
+        ArgumentCaptor<Collection<Notification>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, atLeastOnce()).insertAll(inserted.capture());
+        assertThat(inserted.getAllValues().stream().mapToInt(Collection::size).sum()).isEqualTo(3);
+    }
+
+    @Test
+    void persistFailureIsCountedNotThrown() {
+        when(mongoTemplate.insertAll(anyCollection())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatCode(() -> dispatcher.submit(notification("u1", "fan", "follow", null))).doesNotThrowAnyException();
+
+        verify(counterRepo, never()).incrementUnread(any());
+        verify(streamService, never()).publish(any());
+    }
+
+    @Test
+    void unexpectedFailureFailsTheBatchButNotTheWriter() throws InterruptedException {
+        when(mongoTemplate.indexOps(Notification.class)).thenReturn(mock(IndexOperations.class));
+        when(mongoTemplate.insertAll(anyCollection()))
+                .thenThrow(new IllegalStateException("bug"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        dispatcher.start();
+
+        dispatcher.submit(notification("u1", "fan", "follow", null));
+        for (int i = 0; i < 500 && (long) dispatcher.stats().get("failed") == 0; i++) {
+            Thread.sleep(10);
+        }
+        dispatcher.submit(notification("u2", "fan", "follow", null));
+        dispatcher.stop();
+
+        assertThat(dispatcher.stats()).containsEntry("failed", 1L).containsEntry("persisted", 1L);
+        verify(counterRepo).incrementUnread(Map.of("u2", 1L));
+    }
+
+    @Test
+    void likesOnTheSamePostAreMergedIntoOneUpsert() {
+        BulkOperations bulk = bulkOps();
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getUpserts()).thenReturn(List.of(new BulkWriteUpsert(0, new BsonObjectId())));
+        when(bulk.execute()).thenReturn(result);
+        Notification first = notification("owner", "alice", "like", "p1");
+        Notification second = notification("owner", "bob", "like", "p1");
+
+        persist(first, second);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(any(Query.class), update.capture());
+        Document updateObject = update.getValue().getUpdateObject();
+        assertThat(updateObject.get("$inc", Document.class).get("actorCount")).isEqualTo(2);
+        assertThat(updateObject.get("$set", Document.class).get("senderId")).isEqualTo("bob");
+        assertThat(second.getWindowStart()).isNotNull();
+        verify(mongoTemplate, never()).insertAll(anyCollection());
+        verify(counterRepo).incrementUnread(Map.of("owner", 1L));
+        verify(streamService).publishCoalesced(second);
+    }
+
+    @Test
+    void mergeIntoExistingNotificationDoesNotRaiseUnreadCount() {
+        BulkOperations bulk = bulkOps();
+        when(bulk.execute()).thenReturn(mock(BulkWriteResult.class));
+
+        persist(notification("owner", "alice", "comment", "p1"));
+
+        verify(counterRepo).incrementUnread(Map.of());
+    }
+
+    // The unique coalesce_key index rejected our insert because another writer created the key first:
+    // the group is retried and now merges into that document
+    @Test
+    void duplicateKeyRaceIsRetriedAsMerge() {
+        BulkOperations bulk = bulkOps();
+        BulkOperationException race = mock(BulkOperationException.class);
+        when(race.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)));
+        when(race.getResult()).thenReturn(mock(BulkWriteResult.class));
+        when(bulk.execute()).thenThrow(race);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        Notification like = notification("owner", "alice", "like", "p1");
+
+        persist(like);
+
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(Notification.class));
+        verify(counterRepo).incrementUnread(Map.of());
+        verify(streamService).publishCoalesced(like);
+    }
+
+    @Test
+    void otherBulkErrorsFailTheBatch() {
+        BulkOperations bulk = bulkOps();
+        BulkOperationException error = mock(BulkOperationException.class);
+        when(error.getErrors()).thenReturn(List.of(new BulkWriteError(121, "validation failed", new BsonDocument(), 0)));
+        when(bulk.execute()).thenThrow(error);
+
+        persist(notification("owner", "alice", "like", "p1"));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(Notification.class));
+        verify(counterRepo, never()).incrementUnread(any());
+    }
+
+    private BulkOperations bulkOps() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(bulk);
+        return bulk;
+    }
+
+    // One batch, as the writer thread would drain it
+    private void persist(Notification... batch) {
+        ReflectionTestUtils.invokeMethod(dispatcher, "persist", List.of(batch));
+    }
+
+    static Notification notification(String userId, String senderId, String type, String postId) {
+        return Notification.builder()
+                .userId(userId)
+                .senderId(senderId)
+                .type(type)
+                .postId(postId)
+                .message(type)
+                .createdAt(new Date(NOW))
+                .actorCount(1)
+                .build();
+    }
+}
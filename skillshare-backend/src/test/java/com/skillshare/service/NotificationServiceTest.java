@@ -0,0 +1,115 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.model.Notification;
+import com.skillshare.model.NotificationCounter;
+import com.skillshare.repository.NotificationCounterRepository;
+import com.skillshare.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepo;
+    @Mock
+    private NotificationCounterRepository counterRepo;
+    @Mock
+    private NotificationDispatcher dispatcher;
+    @Mock
+    private MigrationService migrationService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void markReadDecrementsOnlyForAnUnreadNotification() {
+        when(notificationRepo.markRead("n1")).thenReturn(notification("n1", false), (Notification) null);
+
+        assertThat(notificationService.markRead("n1")).isTrue();
+        assertThat(notificationService.markRead("n1")).isFalse();
+
+        verify(counterRepo, times(1)).incrementUnread(Map.of("u1", -1L));
+    }
+
+    @Test
+    void deletingUnreadNotificationDecrementsCounter() {
+        when(notificationRepo.removeById("n1")).thenReturn(Optional.of(notification("n1", false)));
+
+        notificationService.deleteNotification("n1");
+
+        verify(counterRepo).incrementUnread(Map.of("u1", -1L));
+    }
+
+    @Test
+    void deletingReadOrMissingNotificationLeavesCounter() {
+        when(notificationRepo.removeById("read")).thenReturn(Optional.of(notification("read", true)));
+        when(notificationRepo.removeById("gone")).thenReturn(Optional.empty());
+
+        notificationService.deleteNotification("read");
+        notificationService.deleteNotification("gone");
+
+        verify(counterRepo, never()).incrementUnread(any());
+    }
+
+    @Test
+    void unreadCountIsNeverNegative() {
+        when(counterRepo.findById("u1")).thenReturn(Optional.of(new NotificationCounter("u1", -2)));
+        when(counterRepo.findById("u2")).thenReturn(Optional.empty());
+
+        assertThat(notificationService.getUnreadCount("u1")).isZero();
+        assertThat(notificationService.getUnreadCount("u2")).isZero();
+    }
+
+    @Test
+    void pageOfNotificationsCarriesNextCursor() {
+        List<Notification> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(notification("n" + i, false));
+        }
+        when(notificationRepo.findPage(eq("u1"), isNull(), eq(3))).thenReturn(rows);
+
+        CursorPage<Notification> page = notificationService.getNotificationsForUser("u1", null, 2);
+
+        assertThat(page.getItems()).extracting(Notification::getId).containsExactly("n0", "n1");
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void markAllReadResetsCounter() {
+        when(notificationRepo.markAllRead("u1")).thenReturn(4L);
+
+        assertThat(notificationService.markAllRead("u1")).isEqualTo(4L);
+
+        verify(counterRepo).resetUnread("u1");
+    }
+
+    private static Notification notification(String id, boolean read) {
+        return Notification.builder()
+                .id(id)
+                .userId("u1")
+                .type("follow")
+                .createdAt(new Date())
+                .read(read)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Notification;
+import com.skillshare.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepo;
+
+    @InjectMocks
+    private NotificationStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamService, "emitterTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "replayLimit", 100);
+    }
+
+    @Test
+    void resumingConnectionReplaysFromLastEventId() {
+        PageCursor lastSeen = new PageCursor(new Date(5_000L), "n5");
+
+        streamService.subscribe("u1", lastSeen.encode());
+
+        verify(notificationRepo, timeout(2000)).findAfter(eq("u1"),
+                argThat(c -> c.getId().equals("n5") && c.getCreatedAt().getTime() == 5_000L), eq(100));
+    }
+
+    @Test
+    void unknownLastEventIdStartsFromLiveEvents() throws InterruptedException {
+        streamService.subscribe("u1", "not-a-cursor");
+        streamService.subscribe("u2", null);
+
+        Thread.sleep(100);
+        verify(notificationRepo, never()).findAfter(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void connectionsAreTrackedPerUser() {
+        streamService.subscribe("u1", null);
+        streamService.subscribe("u1", null);
+
+        assertThat(streamService.hasSubscribers("u1")).isTrue();
+        assertThat(streamService.hasSubscribers("u2")).isFalse();
+        assertThat(streamService.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void coalescedEventIsReadBackForSubscribersOnly() {
+        Notification latest = Notification.builder()
+                .userId("u1").type("like").postId("p1").windowStart(new Date(0)).createdAt(new Date()).build();
+        streamService.publishCoalesced(latest);
+        verifyNoInteractions(notificationRepo);
+
+        streamService.subscribe("u1", null);
+        streamService.publishCoalesced(latest);
+
+        verify(notificationRepo, timeout(2000)).findCoalesced("u1", "like", "p1", new Date(0));
+    }
+}
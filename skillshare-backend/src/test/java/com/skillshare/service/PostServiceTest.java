@@ -0,0 +1,220 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CommentDto;
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.LikeRequest;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Comment;
+import com.skillshare.model.Post;
+import com.skillshare.repository.PostRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostServiceTest {
+
+    @Mock
+    private PostRepository postRepo;
+    @Mock
+    private CommentService commentService;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private TimelineService timelineService;
+    @Mock
+    private LikeService likeService;
+    @Mock
+    private MediaStorageService mediaStorage;
+    @Mock
+    private RenditionService renditionService;
+    @Mock
+    private SearchService searchService;
+
+    @InjectMocks
+    private PostService postService;
+
+    @Test
+    void fullPageReturnsCursorOfLastItem() {
+        List<Post> rows = posts(4);
+        when(postRepo.findPage(isNull(), isNull(), eq(4))).thenReturn(rows);
+
+        CursorPage<Post> page = postService.getFeedPage(null, 3);
+
+        assertThat(page.getItems()).hasSize(3);
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo("p2");
+        assertThat(next.getCreatedAt()).isEqualTo(rows.get(2).getCreatedAt());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(postRepo.findPage(isNull(), isNull(), eq(4))).thenReturn(posts(2));
+
+        CursorPage<Post> page = postService.getFeedPage(null, 3);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorIsPassedToRepository() {
+        String cursor = new PageCursor(new Date(1_000L), "p9").encode();
+
+        postService.getPostsByUser("u1", cursor, null);
+
+        verify(postRepo).findPage(eq(List.of("u1")),
+                argThat(c -> c.getId().equals("p9") && c.getCreatedAt().getTime() == 1_000L),
+                eq(PostService.DEFAULT_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void likeNotifiesOwnerOnlyWhenItChangedState() {
+        when(likeService.likePost("p1", "fan")).thenReturn(true, false);
+        when(postRepo.findOwnerId("p1")).thenReturn(Optional.of("owner"));
+
+        assertThat(postService.likePost("p1", likeRequest("fan"))).isTrue();
+        assertThat(postService.likePost("p1", likeRequest("fan"))).isFalse();
+
+        verify(notificationService).sendNotification(eq("owner"), eq("fan"), eq("like"), eq("p1"), anyString());
+    }
+
+    @Test
+    void likingOwnPostDoesNotNotify() {
+        when(likeService.likePost("p1", "owner")).thenReturn(true);
+        when(postRepo.findOwnerId("p1")).thenReturn(Optional.of("owner"));
+
+        postService.likePost("p1", likeRequest("owner"));
+
+        verify(notificationService, never()).sendNotification(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void repeatedUnlikeReportsNoChange() {
+        when(likeService.unlikePost("p1", "fan")).thenReturn(true, false);
+
+        assertThat(postService.unlikePost("p1", likeRequest("fan"))).isTrue();
+        assertThat(postService.unlikePost("p1", likeRequest("fan"))).isFalse();
+    }
+
+    @Test
+    void editSetsOnlyTheContentAndKeepsTheCounters() throws Exception {
+        Post previous = posts(1).get(0);
+        previous.setContent("old");
+        previous.setMediaUrls(List.of("old.jpg"));
+        previous.setLikeCount(5);
+        previous.setCommentCount(2);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(postRepo.updateAndGetPrevious(eq("p0"), update.capture())).thenReturn(Optional.of(previous));
+
+        Optional<Post> edited = postService.updatePostWithImage("p0", "new", null);
+
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class)).containsOnlyKeys("content");
+        assertThat(edited).get().satisfies(post -> {
+            assertThat(post.getContent()).isEqualTo("new");
+            assertThat(post.getMediaUrls()).containsExactly("old.jpg");
+            assertThat(post.getLikeCount()).isEqualTo(5);
+            assertThat(post.getCommentCount()).isEqualTo(2);
+        });
+        verify(postRepo, never()).save(any(Post.class));
+        verifyNoInteractions(mediaStorage, renditionService);
+        verify(searchService).indexPost(edited.get());
+    }
+
+    @Test
+    void newImageReplacesTheOldOneAndItsRenditions() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "b.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        when(mediaStorage.store(file)).thenReturn(new MediaStorageService.StoredMedia("new.jpg", "sha", 3));
+        Post previous = posts(1).get(0);
+        previous.setMediaUrls(List.of("old.jpg"));
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(postRepo.updateAndGetPrevious(eq("p0"), update.capture())).thenReturn(Optional.of(previous));
+
+        Optional<Post> edited = postService.updatePostWithImage("p0", "new", file);
+
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsOnlyKeys("content", "mediaUrls", "renditions");
+        assertThat(edited).get().extracting(Post::getMediaUrls).isEqualTo(List.of("new.jpg"));
+        verify(mediaStorage).release("old.jpg");
+        verify(renditionService).submit("p0", "new.jpg");
+    }
+
+    @Test
+    void editOfMissingPostReleasesTheNewUpload() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "b.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        when(mediaStorage.store(file)).thenReturn(new MediaStorageService.StoredMedia("new.jpg", "sha", 3));
+        when(postRepo.updateAndGetPrevious(eq("gone"), any(Update.class))).thenReturn(Optional.empty());
+
+        assertThat(postService.updatePostWithImage("gone", "new", file)).isEmpty();
+
+        verify(mediaStorage).release("new.jpg");
+        verifyNoInteractions(searchService, renditionService);
+    }
+
+    @Test
+    void commentNotifiesThePostOwner() {
+        CommentDto dto = new CommentDto();
+        dto.setPostId("p1");
+        dto.setUserId("fan");
+        Comment saved = new Comment("c1", "p1", "fan", "Nice", new Date());
+        when(commentService.addComment(dto)).thenReturn(Optional.of(saved));
+        when(postRepo.findOwnerId("p1")).thenReturn(Optional.of("owner"));
+
+        assertThat(postService.commentPost(dto)).contains(saved);
+
+        verify(notificationService).sendNotification(eq("owner"), eq("fan"), eq("comment"), eq("p1"), anyString());
+    }
+
+    @Test
+    void commentOnMissingPostIsEmptyAndSilent() {
+        CommentDto dto = new CommentDto();
+        dto.setPostId("gone");
+        when(commentService.addComment(dto)).thenReturn(Optional.empty());
+
+        assertThat(postService.commentPost(dto)).isEmpty();
+
+        verifyNoInteractions(notificationService);
+    }
+
+    private static LikeRequest likeRequest(String userId) {
+        LikeRequest request = new LikeRequest();
+        request.setUserId(userId);
+        return request;
+    }
+
+    // Newest first, like the repository returns them
+    static List<Post> posts(int count) {
+        List<Post> posts = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setId("p" + i);
+            post.setUserId("u1");
+            post.setCreatedAt(new Date(now - i * 1000L));
+            posts.add(post);
+        }
+        return posts;
+    }
+}
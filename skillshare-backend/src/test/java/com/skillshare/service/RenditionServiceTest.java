@@ -0,0 +1,143 @@
+package com.skillshare.service;
+
+import com.skillshare.model.Rendition;
+import com.skillshare.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RenditionServiceTest {
+
+    private static final Path ROOT = Paths.get("uploads");
+
+    @Mock
+    private PostRepository postRepo;
+
+    @InjectMocks
+    private RenditionService renditionService;
+
+    private final List<Path> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(renditionService, "threads", 1);
+        ReflectionTestUtils.setField(renditionService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(renditionService, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(renditionService, "maxPixels", 40_000_000L);
+        renditionService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        renditionService.stop();
+        for (Path path : created) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void widthForPicksTheSmallestCoveringRendition() {
+        assertThat(RenditionService.widthFor(1)).hasValue(320);
+        assertThat(RenditionService.widthFor(320)).hasValue(320);
+        assertThat(RenditionService.widthFor(321)).hasValue(640);
+        assertThat(RenditionService.widthFor(1080)).hasValue(1080);
+        assertThat(RenditionService.widthFor(1081)).isEmpty();
+    }
+
+    @Test
+    void renditionNameReplacesTheExtension() {
+        assertThat(RenditionService.renditionName("ab/cd/abcd.png", 640)).isEqualTo("ab/cd/abcd_w640.jpg");
+        assertThat(RenditionService.renditionName("noext", 320)).isEqualTo("noext_w320.jpg");
+        assertThat(RenditionService.renditionName("dir.v2/noext", 320)).isEqualTo("dir.v2/noext_w320.jpg");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void imageIsDownscaledToEveryNarrowerWidthAndRecorded() throws Exception {
+        String fileName = write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB), "png");
+        track(RenditionService.renditionName(fileName, 320));
+        track(RenditionService.renditionName(fileName, 640));
+        when(postRepo.addRenditions(eq("p1"), eq(fileName), anyList())).thenReturn(true);
+
+        renditionService.submit("p1", fileName);
+
+        ArgumentCaptor<List<Rendition>> renditions = ArgumentCaptor.forClass(List.class);
+        verify(postRepo, timeout(5000)).addRenditions(eq("p1"), eq(fileName), renditions.capture());
+        assertThat(renditions.getValue()).extracting(Rendition::getWidth).containsExactly(320, 640);
+        assertThat(renditions.getValue()).extracting(Rendition::getHeight).containsExactly(160, 320);
+        BufferedImage small = ImageIO.read(ROOT.resolve(RenditionService.renditionName(fileName, 320)).toFile());
+        assertThat(small.getWidth()).isEqualTo(320);
+        assertThat(small.getHeight()).isEqualTo(160);
+    }
+
+    @Test
+    void imageNarrowerThanEveryWidthIsNotUpscaled() throws Exception {
+        String fileName = write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "png");
+
+        renditionService.submit("p1", fileName);
+        renditionService.stop();
+
+        verifyNoInteractions(postRepo);
+        assertThat(ROOT.resolve(RenditionService.renditionName(fileName, 320))).doesNotExist();
+    }
+
+    @Test
+    void nonImageIsSkipped() throws Exception {
+        String fileName = "test-" + UUID.randomUUID() + ".txt";
+        Files.createDirectories(ROOT);
+        Files.writeString(track(fileName), "not an image");
+
+        renditionService.submit("p1", fileName);
+        renditionService.stop();
+
+        verifyNoInteractions(postRepo);
+        assertThat(renditionService.stats()).containsEntry("skipped", 1L).containsEntry("failed", 0L);
+    }
+
+    @Test
+    void imageAboveThePixelLimitIsSkippedBeforeDecoding() throws Exception {
+        ReflectionTestUtils.setField(renditionService, "maxPixels", 800L * 400 - 1);
+        String fileName = write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB), "png");
+
+        renditionService.submit("p1", fileName);
+        renditionService.stop();
+
+        verifyNoInteractions(postRepo);
+        assertThat(ROOT.resolve(RenditionService.renditionName(fileName, 320))).doesNotExist();
+        assertThat(renditionService.stats()).containsEntry("skipped", 1L).containsEntry("failed", 0L);
+    }
+
+    private String write(BufferedImage image, String format) throws IOException {
+        String fileName = "test-" + UUID.randomUUID() + "." + format;
+        Files.createDirectories(ROOT);
+        ImageIO.write(image, format, track(fileName).toFile());
+        return fileName;
+    }
+
+    private Path track(String fileName) {
+        Path path = ROOT.resolve(fileName);
+        created.add(path);
+        return path;
+    }
+}
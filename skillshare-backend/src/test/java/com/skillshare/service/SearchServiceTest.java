@@ -0,0 +1,214 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.SearchHitDto;
+import com.skillshare.model.MealPlan;
+import com.skillshare.model.Post;
+import com.skillshare.repository.MealPlanRepository;
+import com.skillshare.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Real Lucene index in a temporary directory; MongoDB is mocked
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private PostRepository postRepo;
+    @Mock
+    private MealPlanRepository mealPlanRepo;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @TempDir
+    private Path indexDir;
+
+    private final List<Post> storedPosts = new ArrayList<>();
+    private final List<MealPlan> storedPlans = new ArrayList<>();
+    private final AtomicInteger rebuilds = new AtomicInteger();
+    private boolean open;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchService, "indexDir", indexDir.toString());
+        // Refresh and commit only when a test asks for them
+        ReflectionTestUtils.setField(searchService, "refreshMs", 3_600_000L);
+        ReflectionTestUtils.setField(searchService, "commitMs", 3_600_000L);
+        // MongoDB as seen by the rebuild and by hydration
+        lenient().when(mongoTemplate.stream(any(Query.class), eq(Post.class))).thenAnswer(invocation -> storedPosts.stream());
+        lenient().when(mongoTemplate.stream(any(Query.class), eq(MealPlan.class))).thenAnswer(invocation -> {
+            rebuilds.incrementAndGet();   // meal plans are streamed last
+            return storedPlans.stream();
+        });
+        lenient().when(postRepo.findAllById(anyIterable())).thenAnswer(invocation -> matching(storedPosts, invocation.getArgument(0), Post::getId));
+        lenient().when(mealPlanRepo.findAllById(anyIterable())).thenAnswer(invocation -> matching(storedPlans, invocation.getArgument(0), MealPlan::getId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (open) {
+            searchService.close();
+        }
+    }
+
+    @Test
+    void emptyIndexIsRebuiltFromMongoOnStartup() throws Exception {
+        storedPosts.add(post("p1", "Sourdough bread basics"));
+        storedPlans.add(plan("m1", "Bread week", "Seven loaves", List.of("baking")));
+
+        openAndAwaitRebuild();
+
+        List<SearchHitDto> hits = searchService.search("bread", null, 0, 10);
+        assertThat(hits).extracting(SearchHitDto::getId).containsExactlyInAnyOrder("p1", "m1");
+        assertThat(hits).extracting(SearchHitDto::getItem).containsExactlyInAnyOrder(storedPosts.get(0), storedPlans.get(0));
+    }
+
+    @Test
+    void writesAreSearchableAfterARefreshWithStemming() throws Exception {
+        openAndAwaitRebuild();
+        storedPosts.add(post("p1", "She bakes rye bread"));
+        storedPlans.add(plan("m1", "Baking plan", null, List.of("bread")));
+        searchService.indexPost(storedPosts.get(0));
+        searchService.indexMealPlan(storedPlans.get(0));
+
+        assertThat(searchService.search("baking", null, 0, 10)).isEmpty();
+        refresh();
+
+        assertThat(searchService.search("baking", null, 0, 10)).extracting(SearchHitDto::getId).containsExactlyInAnyOrder("p1", "m1");
+        assertThat(searchService.search("baking", SearchService.TYPE_POST, 0, 10)).extracting(SearchHitDto::getId).containsExactly("p1");
+        // AND by default
+        assertThat(searchService.search("bread rye", null, 0, 10)).extracting(SearchHitDto::getId).containsExactly("p1");
+    }
+
+    @Test
+    void reindexReplacesAndDeleteRemoves() throws Exception {
+        openAndAwaitRebuild();
+        Post post = post("p1", "tomato soup");
+        storedPosts.add(post);
+        searchService.indexPost(post);
+        post.setContent("lentil soup");
+        searchService.indexPost(post);
+        refresh();
+
+        assertThat(searchService.search("tomato", null, 0, 10)).isEmpty();
+        assertThat(searchService.search("soup", null, 0, 10)).hasSize(1);
+
+        searchService.deletePost("p1");
+        refresh();
+        assertThat(searchService.search("soup", null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void hitsMissingFromMongoAreDropped() throws Exception {
+        openAndAwaitRebuild();
+        searchService.indexPost(post("p1", "pancakes"));
+        refresh();
+
+        assertThat(searchService.search("pancakes", null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void unparseableQueryIsSearchedLiterally() throws Exception {
+        openAndAwaitRebuild();
+        storedPosts.add(post("p1", "bread"));
+        searchService.indexPost(storedPosts.get(0));
+        refresh();
+
+        assertThat(searchService.search("bread AND (", null, 0, 10)).extracting(SearchHitDto::getId).containsExactly("p1");
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        openAndAwaitRebuild();
+
+        assertThatThrownBy(() -> searchService.search(" ", null, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("bread", "user", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("bread", null, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("bread", null, 20, 50)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Rebuilds are startup-only: an existing index is reused unless the ops flag asks for a rebuild
+    @Test
+    void existingIndexIsRebuiltOnlyWhenConfigured() throws Exception {
+        storedPosts.add(post("p1", "bread"));
+        openAndAwaitRebuild();
+        searchService.close();
+
+        searchService.open();
+        searchService.close();   // waits for anything the startup scheduled
+        assertThat(rebuilds).hasValue(1);
+
+        ReflectionTestUtils.setField(searchService, "rebuildOnStartup", true);
+        openAndAwaitRebuild();
+        assertThat(rebuilds).hasValue(2);
+        assertThat(searchService.search("bread", null, 0, 10)).extracting(SearchHitDto::getId).containsExactly("p1");
+    }
+
+    private void openAndAwaitRebuild() throws Exception {
+        int before = rebuilds.get();
+        searchService.open();
+        open = true;
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((rebuilds.get() == before || rebuilding().get()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(rebuilds.get()).isGreaterThan(before);
+    }
+
+    private AtomicBoolean rebuilding() {
+        return (AtomicBoolean) ReflectionTestUtils.getField(searchService, "rebuilding");
+    }
+
+    private void refresh() {
+        ReflectionTestUtils.invokeMethod(searchService, "refresh");
+    }
+
+    private static <T> List<T> matching(List<T> stored, Iterable<String> ids, Function<T, String> idOf) {
+        List<String> wanted = new ArrayList<>();
+        ids.forEach(wanted::add);
+        return stored.stream().filter(item -> wanted.contains(idOf.apply(item))).toList();
+    }
+
+    private static Post post(String id, String content) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId("u1");
+        post.setContent(content);
+        return post;
+    }
+
+    private static MealPlan plan(String id, String title, String description, List<String> topics) {
+        MealPlan plan = new MealPlan();
+        plan.setId(id);
+        plan.setUserId("u1");
+        plan.setTitle(title);
+        plan.setDescription(description);
+        plan.setTopics(topics);
+        return plan;
+    }
+}
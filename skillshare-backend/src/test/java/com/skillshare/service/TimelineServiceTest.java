@@ -0,0 +1,147 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.PageCursor;
+import com.skillshare.model.Post;
+import com.skillshare.model.Timeline;
+import com.skillshare.model.TimelineEntry;
+import com.skillshare.model.User;
+import com.skillshare.repository.PostRepository;
+import com.skillshare.repository.TimelineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private TimelineRepository timelineRepo;
+    @Mock
+    private PostRepository postRepo;
+    @Mock
+    private FollowService followService;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "fanOutFollowerLimit", 100);
+        ReflectionTestUtils.setField(timelineService, "maxEntries", 800);
+        ReflectionTestUtils.setField(timelineService, "fanOutBatchSize", 1000);
+        ReflectionTestUtils.setField(timelineService, "fanOutThreads", 1);
+        ReflectionTestUtils.setField(timelineService, "fanOutQueueCapacity", 10);
+    }
+
+    @Test
+    void mergesPushedEntriesWithPulledPostsNewestFirst() {
+        when(followService.getFollowingIds("reader")).thenReturn(Set.of("alice", "celebrity"));
+        when(timelineRepo.findById("reader")).thenReturn(Optional.of(new Timeline("reader", List.of(
+                entry("a2", "alice", 40),
+                entry("x1", "unfollowed", 35),
+                entry("a1", "alice", 10)))));
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(user("celebrity")));
+        Post c1 = post("c1", "celebrity", 30);
+        when(postRepo.findPage(eq(List.of("celebrity")), isNull(), eq(3))).thenReturn(List.of(c1));
+        when(postRepo.findAllById(List.of("a2", "a1"))).thenReturn(List.of(post("a2", "alice", 40), post("a1", "alice", 10)));
+
+        CursorPage<Post> page = timelineService.getTimeline("reader", null, 2);
+
+        assertThat(page.getItems()).extracting(Post::getId).containsExactly("a2", "c1");
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo("c1");
+        assertThat(next.getCreatedAt()).isEqualTo(c1.getCreatedAt());
+    }
+
+    @Test
+    void cursorSkipsEntriesAtOrAfterIt() {
+        when(followService.getFollowingIds("reader")).thenReturn(Set.of("alice"));
+        when(timelineRepo.findById("reader")).thenReturn(Optional.of(new Timeline("reader", List.of(
+                entry("a3", "alice", 30),
+                entry("a2", "alice", 20),
+                entry("a1", "alice", 10)))));
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of());
+        when(postRepo.findAllById(List.of("a1"))).thenReturn(List.of(post("a1", "alice", 10)));
+
+        String cursor = new PageCursor(new Date(20_000L), "a2").encode();
+        CursorPage<Post> page = timelineService.getTimeline("reader", cursor, 10);
+
+        assertThat(page.getItems()).extracting(Post::getId).containsExactly("a1");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void readerFollowingNobodyGetsEmptyPage() {
+        when(followService.getFollowingIds("reader")).thenReturn(Set.of());
+
+        CursorPage<Post> page = timelineService.getTimeline("reader", null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        verify(timelineRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void popularAuthorsAreNotFannedOut() {
+        User author = user("celebrity");
+        author.setFollowerCount(101);
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(author);
+
+        timelineService.fanOut(post("c1", "celebrity", 10));
+
+        verify(followService, never()).forEachFollowerIdBatch(anyString(), anyInt(), any());
+    }
+
+    @Test
+    void submittedFanOutRunsInTheBackgroundAndSurvivesFailures() {
+        User author = user("author");
+        author.setFollowerCount(3);
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class)))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(author);
+        timelineService.start();
+
+        timelineService.submitFanOut(post("p1", "author", 10));
+        timelineService.submitFanOut(post("p2", "author", 20));
+        timelineService.stop();
+
+        // The first fan-out failed on the worker thread; the second one still ran
+        verify(followService, timeout(5000)).forEachFollowerIdBatch(eq("author"), eq(1000), any());
+    }
+
+    private static TimelineEntry entry(String postId, String authorId, long seconds) {
+        return new TimelineEntry(postId, authorId, new Date(seconds * 1000));
+    }
+
+    private static Post post(String id, String userId, long seconds) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUserId(userId);
+        post.setCreatedAt(new Date(seconds * 1000));
+        return post;
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
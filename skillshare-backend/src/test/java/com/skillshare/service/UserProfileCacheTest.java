@@ -0,0 +1,69 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserProfileCacheTest {
+
+    private final UserProfileCache cache = new UserProfileCache(100, 600);
+
+    @Test
+    void loaderRunsOncePerId() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("u1", id -> { loads.incrementAndGet(); return user(id); });
+        UserDto second = cache.get("u1", id -> { loads.incrementAndGet(); return user(id); });
+
+        assertThat(second.getId()).isEqualTo("u1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void unknownIdsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("gone", id -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.get("gone", id -> { loads.incrementAndGet(); return null; })).isNull();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getAllLoadsOnlyTheMisses() {
+        cache.get("u1", this::user);
+        List<Set<? extends String>> requested = new ArrayList<>();
+
+        Map<String, UserDto> users = cache.getAll(List.of("u1", "u2", "gone"), missing -> {
+            requested.add(Set.copyOf(missing));
+            Map<String, UserDto> loaded = new HashMap<>();
+            loaded.put("u2", user("u2"));
+            return loaded;
+        });
+
+        assertThat(requested).containsExactly(Set.of("u2", "gone"));
+        assertThat(users).containsOnlyKeys("u1", "u2");
+    }
+
+    @Test
+    void invalidateForcesAReload() {
+        cache.get("u1", this::user);
+        cache.invalidate("u1");
+
+        UserDto reloaded = cache.get("u1", id -> new UserDto(id, "Renamed", null, null, null, 0, 0));
+
+        assertThat(reloaded.getFirstname()).isEqualTo("Renamed");
+    }
+
+    private UserDto user(String id) {
+        return new UserDto(id, "First " + id, "Last", null, null, 0, 0);
+    }
+}
@@ -0,0 +1,229 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.CursorPage;
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.User;
+import com.skillshare.repository.UserRepository;
+import com.skillshare.security.CustomUserDetailsService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepo;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+    @Mock
+    private FollowService followService;
+    @Mock
+    private UserSuggestIndex suggestIndex;
+
+    // Real cache: the tests are about which lookups reach the repository
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepo, notificationService, userDetailsService,
+                new UserProfileCache(100, 600), followService, suggestIndex);
+    }
+
+    // ---------- batch lookup ----------
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void batchLookupIsOneQueryForTheMisses() {
+        when(userRepo.findAllById(argThat(ids -> ids != null && Set.copyOf((List<String>) ids).equals(Set.of("u1", "u2", "gone")))))
+                .thenReturn(List.of(user("u1"), user("u2")));
+
+        assertThat(userService.getUsersByIds(Arrays.asList("u1", "u2", "u1", null, "gone"))).containsOnlyKeys("u1", "u2");
+
+        verify(userRepo, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void cachedUsersAreNotRequeried() {
+        when(userRepo.findById("u1")).thenReturn(Optional.of(user("u1")));
+        when(userRepo.findAllById(List.of("u2"))).thenReturn(List.of(user("u2")));
+
+        userService.getUserById("u1");
+        assertThat(userService.getUsersByIds(List.of("u1", "u2"))).containsOnlyKeys("u1", "u2");
+        assertThat(userService.getUserById("u2")).isPresent();
+
+        verify(userRepo, times(1)).findById(anyString());
+    }
+
+    @Test
+    void unknownUserIsEmpty() {
+        when(userRepo.findById("gone")).thenReturn(Optional.empty());
+
+        assertThat(userService.getUserById("gone")).isEmpty();
+    }
+
+    // ---------- directory ----------
+
+    @Test
+    void directoryPageEndsWithTheLastIdAsCursor() {
+        String after = new ObjectId().toHexString();
+        List<User> rows = List.of(user("a1"), user("a2"), user("a3"));
+        when(userRepo.findDirectoryPage(after, 3)).thenReturn(rows);
+
+        CursorPage<UserDto> page = userService.getUsers(after, 2);
+
+        assertThat(page.getItems()).extracting(UserDto::getId).containsExactly("a1", "a2");
+        assertThat(page.getNextCursor()).isEqualTo("a2");
+    }
+
+    @Test
+    void lastDirectoryPageHasNoCursor() {
+        when(userRepo.findDirectoryPage(null, UserService.DEFAULT_PAGE_SIZE + 1)).thenReturn(List.of(user("a1")));
+
+        CursorPage<UserDto> page = userService.getUsers(" ", null);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void directoryLimitIsCapped() {
+        when(userRepo.findDirectoryPage(null, UserService.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+        assertThat(userService.getUsers(null, 10_000).getItems()).isEmpty();
+    }
+
+    @Test
+    void malformedDirectoryCursorIsRejected() {
+        assertThatThrownBy(() -> userService.getUsers("not-an-id", null)).isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(userRepo);
+    }
+
+    // ---------- typeahead ----------
+
+    @Test
+    void suggestLimitIsDefaultedAndCapped() {
+        userService.suggestUsers("an", null);
+        userService.suggestUsers("an", 0);
+        userService.suggestUsers("an", 1000);
+        userService.suggestUsers("an", 5);
+
+        verify(suggestIndex, times(2)).suggest("an", UserSuggestIndex.DEFAULT_LIMIT);
+        verify(suggestIndex).suggest("an", UserSuggestIndex.MAX_LIMIT);
+        verify(suggestIndex).suggest("an", 5);
+        verifyNoInteractions(userRepo);
+    }
+
+    // ---------- profile update ----------
+
+    @Test
+    void updateSetsOnlyTheProfileFieldsAndRefreshesTheCache() {
+        User saved = user("u1");
+        saved.setFirstname("Renamed");
+        saved.setFollowerCount(7);
+        when(userRepo.findById("u1")).thenReturn(Optional.of(user("u1")), Optional.of(saved));
+        userService.getUserById("u1");
+        when(userRepo.updateProfile("u1", "Renamed", "Last", "pic.jpg", "bio")).thenReturn(Optional.of(saved));
+
+        // Counts in the request body are ignored: the stored ones come back
+        Optional<UserDto> updated = userService.updateUser("u1", new UserDto("u1", "Renamed", "Last", "pic.jpg", "bio", 999, 999));
+
+        assertThat(updated).get().satisfies(dto -> {
+            assertThat(dto.getFirstname()).isEqualTo("Renamed");
+            assertThat(dto.getFollowerCount()).isEqualTo(7);
+        });
+        verify(userRepo, never()).save(any(User.class));
+        verify(suggestIndex).put(saved);
+        // The cached profile was dropped, so the next read sees the new name
+        assertThat(userService.getUserById("u1")).get().extracting(UserDto::getFirstname).isEqualTo("Renamed");
+        verify(userRepo, times(2)).findById("u1");
+    }
+
+    @Test
+    void updateOfUnknownUserIsEmpty() {
+        when(userRepo.updateProfile(eq("gone"), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThat(userService.updateUser("gone", new UserDto())).isEmpty();
+
+        verifyNoInteractions(suggestIndex);
+    }
+
+    // ---------- follow / unfollow ----------
+
+    @Test
+    void firstFollowNotifiesAndRetryChangesNothing() {
+        when(userRepo.existsById(anyString())).thenReturn(true);
+        when(followService.follow("alice", "bob")).thenReturn(true, false);
+
+        assertThat(userService.followUser("bob", "alice")).contains(true);
+        assertThat(userService.followUser("bob", "alice")).contains(false);
+
+        verify(notificationService, times(1)).sendNotification("bob", "alice", "follow", null, "👤 Someone followed you.");
+    }
+
+    @Test
+    void unfollowReportsWhetherAnEdgeWasRemoved() {
+        when(userRepo.existsById(anyString())).thenReturn(true);
+        when(followService.unfollow("alice", "bob")).thenReturn(true, false);
+
+        assertThat(userService.unfollowUser("bob", "alice")).contains(true);
+        assertThat(userService.unfollowUser("bob", "alice")).contains(false);
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void followCountsAreReloadedAfterARealChange() {
+        User bob = user("bob");
+        User followed = user("bob");
+        followed.setFollowerCount(1);
+        when(userRepo.findById("bob")).thenReturn(Optional.of(bob), Optional.of(followed));
+        when(userRepo.existsById(anyString())).thenReturn(true);
+        when(followService.follow("alice", "bob")).thenReturn(true);
+
+        userService.getUserById("bob");
+        userService.followUser("bob", "alice");
+
+        assertThat(userService.getUserById("bob")).get().extracting(UserDto::getFollowerCount).isEqualTo(1L);
+    }
+
+    @Test
+    void selfFollowAndUnknownUsersAreInvalid() {
+        when(userRepo.existsById("alice")).thenReturn(true);
+        when(userRepo.existsById("gone")).thenReturn(false);
+
+        assertThat(userService.followUser("alice", "alice")).isEmpty();
+        assertThat(userService.followUser("gone", "alice")).isEmpty();
+        assertThat(userService.unfollowUser("alice", "gone")).isEmpty();
+
+        verifyNoInteractions(followService, notificationService);
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstname("First " + id);
+        user.setPassword("hash");
+        return user;
+    }
+}
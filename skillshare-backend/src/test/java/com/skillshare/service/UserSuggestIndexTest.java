@@ -0,0 +1,103 @@
+package com.skillshare.service;
+
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSuggestIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserSuggestIndex index;
+
+    @Test
+    void matchesFirstLastAndFullNamePrefixes() {
+        index.put(user("u1", "Ana", "Silva"));
+        index.put(user("u2", "Bruno", "Anand"));
+        index.put(user("u3", "Carla", "Souza"));
+
+        assertThat(index.suggest("an", 10)).extracting(UserDto::getId).containsExactly("u1", "u2");
+        assertThat(index.suggest("ana s", 10)).extracting(UserDto::getId).containsExactly("u1");
+        assertThat(index.suggest("s", 10)).extracting(UserDto::getId).containsExactly("u1", "u3");
+    }
+
+    @Test
+    void queryIsCaseAccentAndWhitespaceInsensitive() {
+        index.put(user("u1", "José", "Núñez"));
+
+        assertThat(index.suggest("  JOSE   nu", 10)).extracting(UserDto::getId).containsExactly("u1");
+        assertThat(index.suggest("núñ", 10)).extracting(UserDto::getId).containsExactly("u1");
+    }
+
+    @Test
+    void userMatchingSeveralKeysIsReturnedOnceAndLimitApplies() {
+        index.put(user("u1", "Sam", "Sampson"));
+        index.put(user("u2", "Samir", null));
+        index.put(user("u3", "Samuel", "Lee"));
+
+        assertThat(index.suggest("sam", 10)).extracting(UserDto::getId).containsExactly("u1", "u2", "u3");
+        assertThat(index.suggest("sam", 2)).extracting(UserDto::getId).containsExactly("u1", "u2");
+    }
+
+    @Test
+    void renameDropsTheOldKeysAndRemoveDropsTheUser() {
+        index.put(user("u1", "Ana", "Silva"));
+        index.put(user("u1", "Beatriz", "Silva"));
+
+        assertThat(index.suggest("ana", 10)).isEmpty();
+        assertThat(index.suggest("bea", 10)).singleElement().extracting(UserDto::getFirstname).isEqualTo("Beatriz");
+        assertThat(index.suggest("silva", 10)).singleElement().extracting(UserDto::getFirstname).isEqualTo("Beatriz");
+
+        index.remove("u1");
+        assertThat(index.suggest("silva", 10)).isEmpty();
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        index.put(user("u1", "Ana", "Silva"));
+
+        assertThat(index.suggest("   ", 10)).isEmpty();
+        assertThat(index.suggest(null, 10)).isEmpty();
+    }
+
+    // The index never exposes more than the public profile fields
+    @Test
+    void loadStreamsEveryUser() {
+        User user = user("u1", "Ana", "Silva");
+        user.setEmail("ana@example.com");
+        user.setBio("Baker");
+        when(mongoTemplate.stream(any(Query.class), eq(User.class))).thenReturn(Stream.of(user, user("u2", "Bruno", null)));
+
+        index.load();
+
+        assertThat(index.suggest("ana", 10)).singleElement().satisfies(profile -> {
+            assertThat(profile.getLastname()).isEqualTo("Silva");
+            assertThat(profile.getBio()).isNull();
+        });
+        assertThat(index.suggest("bruno", 10)).hasSize(1);
+    }
+
+    private static User user(String id, String firstname, String lastname) {
+        User user = new User();
+        user.setId(id);
+        user.setFirstname(firstname);
+        user.setLastname(lastname);
+        return user;
+    }
+}
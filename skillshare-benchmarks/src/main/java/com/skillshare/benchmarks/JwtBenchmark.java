@@ -0,0 +1,50 @@
+package com.skillshare.benchmarks;
+
+import com.skillshare.benchmarks.support.Beans;
+import com.skillshare.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// ✅ Token issue and the per-request validation path (cached vs. full signature verification)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "5465766D59713375426D756E5A72347558762E4429482B4D6251655468576D7A52";
+    private static final String EMAIL = "bench@skillshare.com";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        Beans.setField(jwtUtil, "jwtSecret", SECRET);
+        Beans.setField(jwtUtil, "jwtExpirationMs", 86_400_000);
+        Beans.setField(jwtUtil, "tokenCacheSize", 10_000L);
+        Beans.invoke(jwtUtil, "init");
+        token = jwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL);
+    }
+
+    // Hot path in JwtRequestFilter: repeated requests with the same token hit the verified-token cache
+    @Benchmark
+    public boolean validateTokenCached() {
+        return jwtUtil.validateToken(token);
+    }
+
+    // Full parse + HMAC verification, i.e. the cost of a cache miss
+    @Benchmark
+    public String parseTokenUncached() {
+        return jwtUtil.extractUsername(token);
+    }
+}
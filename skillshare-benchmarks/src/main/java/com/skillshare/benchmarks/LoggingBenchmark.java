@@ -0,0 +1,127 @@
+package com.skillshare.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.skillshare.config.SampledDebugTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// ✅ Per-request logging cost under contention: synchronized println with concatenation
+// (what JwtRequestFilter used to do) vs. level-gated parameterized SLF4J, and the cost of an
+// INFO event that is actually written through the logback-spring.xml appender chain
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class LoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger("com.skillshare.benchmarks.LoggingBenchmark");
+
+    private final String requestURI = "/posts/6650f1c2a4b3c2d1e0f9a8b7/comments";
+    private final String authorizationHeader = "Bearer eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJiZW5jaEBza2lsbHNoYXJlLmNvbSJ9.sig";
+
+    // A discarding stream keeps terminal speed out of the measurement; println's lock contention remains
+    private PrintStream out;
+
+    @Setup
+    public void setup() {
+        out = new PrintStream(OutputStream.nullOutputStream(), true);
+        ((ch.qos.logback.classic.Logger) log).setLevel(Level.INFO);
+    }
+
+    // Mirrors logback-spring.xml in a private LoggerContext: turbo filter, ECS JSON encoder, and either the
+    // encoder on the calling thread (sync) or the AsyncAppender in front of it. The console is a discarding
+    // stream, so encoding and appender locking are measured, not the terminal.
+    @State(Scope.Benchmark)
+    public static class Appenders {
+
+        // async = the shipped config (neverBlock: a full queue drops events, so it reports the enqueue cost);
+        // asyncBlocking = same queue, but callers wait once the worker falls behind (sustained throughput)
+        @Param({"sync", "async", "asyncBlocking"})
+        public String mode;
+
+        Logger logger;
+        private LoggerContext context;
+
+        @Setup
+        public void setup() {
+            context = new LoggerContext();
+            // StructuredLogEncoder reads its settings from the Spring Environment that LoggingSystem registers
+            context.putObject(Environment.class.getName(), new StandardEnvironment());
+            context.addTurboFilter(new SampledDebugTurboFilter());
+
+            StructuredLogEncoder encoder = new StructuredLogEncoder();
+            encoder.setContext(context);
+            encoder.setFormat("ecs");
+            encoder.setCharset(StandardCharsets.UTF_8);
+            encoder.start();
+
+            OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+            console.setContext(context);
+            console.setName("CONSOLE");
+            console.setEncoder(encoder);
+            console.setOutputStream(OutputStream.nullOutputStream());
+            console.start();
+
+            Appender<ILoggingEvent> appender = console;
+            if (!"sync".equals(mode)) {
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(context);
+                async.setName("ASYNC_CONSOLE");
+                async.setQueueSize(8192);
+                async.setDiscardingThreshold(0);
+                async.setNeverBlock("async".equals(mode));
+                async.setIncludeCallerData(false);
+                async.addAppender(console);
+                async.start();
+                appender = async;
+            }
+
+            ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            root.setLevel(Level.INFO);
+            root.addAppender(appender);
+            context.start();
+            logger = context.getLogger("com.skillshare.security.JwtRequestFilter");
+        }
+
+        @TearDown
+        public void tearDown() {
+            // Stops the AsyncAppender worker after it drains the queue
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void systemOutConcatenation() {
+        out.println("Request URI: " + requestURI);
+        out.println("Auth header present: " + authorizationHeader.substring(0, Math.min(20, authorizationHeader.length())) + "...");
+        out.println("Extracted username from token: " + "bench@skillshare.com");
+    }
+
+    @Benchmark
+    public void slf4jDebugGated() {
+        log.debug("Request URI: {}, auth header present: {}", requestURI, authorizationHeader != null);
+    }
+
+    // An enabled INFO event: formatted, encoded to ECS JSON and written (or queued) on every call
+    @Benchmark
+    public void slf4jInfoThroughAppender(Appenders appenders) {
+        appenders.logger.info("Request URI: {}, auth header present: {}", requestURI, authorizationHeader != null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.skillshare.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillshare.model.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// ✅ Jackson cost of a post that embeds its likers vs. one that only carries likeCount
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int likes;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Post post;
+    private LegacyPost legacyPost;
+
+    // Shape of a post before likes moved to their own collection
+    public static class LegacyPost {
+        public String id;
+        public String userId;
+        public String content;
+        public List<String> mediaUrls;
+        public Set<String> likedUserIds;
+        public Date createdAt;
+    }
+
+    @Setup
+    public void setup() {
+        post = new Post();
+        post.setId("6650f1c2a4b3c2d1e0f9a8b7");
+        post.setUserId("6650f1c2a4b3c2d1e0f9a8b0");
+        post.setContent("Weekly meal prep: roasted vegetables, quinoa and a lemon tahini dressing.");
+        post.setMediaUrls(List.of("ab/cd/abcdef0123456789.jpg"));
+        post.setLikeCount(likes);
+        post.setCreatedAt(new Date());
+
+        legacyPost = new LegacyPost();
+        legacyPost.id = post.getId();
+        legacyPost.userId = post.getUserId();
+        legacyPost.content = post.getContent();
+        legacyPost.mediaUrls = post.getMediaUrls();
+        legacyPost.createdAt = post.getCreatedAt();
+        legacyPost.likedUserIds = new HashSet<>();
+        for (int i = 0; i < likes; i++) {
+            legacyPost.likedUserIds.add(String.format("6650f1c2a4b3c2d1%08x", i));
+        }
+    }
+
+    @Benchmark
+    public byte[] postWithLikeCount() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] legacyPostWithLikedUserIds() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(legacyPost);
+    }
+}
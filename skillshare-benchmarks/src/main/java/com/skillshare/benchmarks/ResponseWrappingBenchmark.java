@@ -0,0 +1,62 @@
+package com.skillshare.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillshare.model.Post;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// ✅ The HashMap-wrapped page response PostController returns, end to end through Jackson
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWrappingBenchmark {
+
+    @Param({"20", "50"})
+    private int pageSize;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<Post> posts;
+    private final String nextCursor = "MTcxNjIwMDAwMDAwMDo2NjUwZjFjMmE0YjNjMmQxZTBmOWE4Yjc";
+
+    @Setup
+    public void setup() {
+        posts = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post();
+            post.setId(String.format("6650f1c2a4b3c2d1%08x", i));
+            post.setUserId("6650f1c2a4b3c2d1e0f9a8b0");
+            post.setContent("Post number " + i + " about batch cooking for the week.");
+            post.setMediaUrls(List.of("ab/cd/abcdef0123456789" + i + ".jpg"));
+            post.setLikeCount(i * 3);
+            post.setCreatedAt(new Date(1_716_200_000_000L - i * 60_000L));
+            posts.add(post);
+        }
+    }
+
+    // As built in PostController.pageResponse
+    @Benchmark
+    public byte[] hashMapWrapped() throws JsonProcessingException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", posts.size());
+        response.put("posts", posts);
+        response.put("nextCursor", nextCursor);
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] immutableMapWrapped() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(Map.of("count", posts.size(), "posts", posts, "nextCursor", nextCursor));
+    }
+
+    // Lower bound: the payload alone
+    @Benchmark
+    public byte[] bareList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(posts);
+    }
+}
@@ -0,0 +1,69 @@
+package com.skillshare.benchmarks;
+
+import com.skillshare.benchmarks.support.Beans;
+import com.skillshare.benchmarks.support.InMemoryRepository;
+import com.skillshare.dto.UserDto;
+import com.skillshare.model.User;
+import com.skillshare.repository.UserRepository;
+import com.skillshare.service.UserProfileCache;
+import com.skillshare.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// ✅ UserService against an in-memory UserRepository stand-in (no MongoDB needed)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"100", "10000"})
+    private int users;
+
+    private UserService userService;
+    private User sample;
+    private String sampleId;
+    private List<String> pageIds;
+
+    @Setup
+    public void setup() {
+        UserRepository userRepo = InMemoryRepository.create(UserRepository.class);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setFirstname("First" + i);
+            user.setLastname("Last" + i);
+            user.setEmail("user" + i + "@skillshare.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+            user.setBio("Bio of user " + i);
+            user.setFollowerCount(50);
+            user.setFollowingCount(50);
+            userRepo.save(user);
+        }
+        sample = userRepo.findAll().get(users / 2);
+        sampleId = sample.getId();
+        pageIds = userRepo.findAll().stream().limit(20).map(User::getId).collect(Collectors.toList());
+        userService = Beans.construct(UserService.class, userRepo, new UserProfileCache(10_000, 600));
+    }
+
+    @Benchmark
+    public UserDto convertToDto() {
+        return userService.convertToDto(sample);
+    }
+
+    @Benchmark
+    public UserDto getUserById() {
+        return userService.getUserById(sampleId).orElseThrow();
+    }
+
+    // A feed page worth of authors, as resolved by POST /users/batch
+    @Benchmark
+    public Map<String, UserDto> getUsersByIds() {
+        return userService.getUsersByIds(pageIds);
+    }
+}
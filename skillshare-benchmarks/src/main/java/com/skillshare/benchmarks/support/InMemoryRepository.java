@@ -0,0 +1,130 @@
+package com.skillshare.benchmarks.support;
+
+import org.bson.types.ObjectId;
+
+import java.beans.Introspector;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+// ✅ HashMap-backed stand-in for a MongoRepository interface, so services can be benchmarked without MongoDB.
+// Supports the CRUD methods plus single-argument derived finders such as findByEmail.
+public final class InMemoryRepository implements InvocationHandler {
+
+    private final Map<Object, Object> store = new LinkedHashMap<>();
+
+    private InMemoryRepository() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R> R create(Class<R> repositoryType) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType}, new InMemoryRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        int arity = args == null ? 0 : args.length;
+
+        switch (name) {
+            case "save", "insert" -> {
+                if (args[0] instanceof Iterable<?> entities) {
+                    return saveAll(entities);
+                }
+                return save(args[0]);
+            }
+            case "saveAll" -> {
+                return saveAll((Iterable<?>) args[0]);
+            }
+            case "findById" -> {
+                return Optional.ofNullable(store.get(args[0]));
+            }
+            case "existsById" -> {
+                return store.containsKey(args[0]);
+            }
+            case "findAllById" -> {
+                List<Object> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    Object entity = store.get(id);
+                    if (entity != null) {
+                        found.add(entity);
+                    }
+                }
+                return found;
+            }
+            case "count" -> {
+                return (long) store.size();
+            }
+            case "deleteById" -> {
+                store.remove(args[0]);
+                return null;
+            }
+            case "delete" -> {
+                store.remove(idOf(args[0]));
+                return null;
+            }
+            case "deleteAll" -> {
+                store.clear();
+                return null;
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "toString" -> {
+                return "InMemoryRepository" + store.keySet();
+            }
+            default -> {
+            }
+        }
+
+        if (name.equals("findAll") && arity == 0) {
+            return new ArrayList<>(store.values());
+        }
+        if (name.startsWith("findBy") && arity == 1) {
+            String property = Introspector.decapitalize(name.substring("findBy".length()));
+            List<Object> matches = new ArrayList<>();
+            for (Object entity : store.values()) {
+                if (Objects.equals(read(entity, property), args[0])) {
+                    matches.add(entity);
+                }
+            }
+            if (method.getReturnType() == Optional.class) {
+                return matches.stream().findFirst();
+            }
+            return matches;
+        }
+        throw new UnsupportedOperationException("InMemoryRepository does not implement " + name);
+    }
+
+    private List<Object> saveAll(Iterable<?> entities) throws ReflectiveOperationException {
+        List<Object> saved = new ArrayList<>();
+        for (Object entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    private Object save(Object entity) throws ReflectiveOperationException {
+        Object id = idOf(entity);
+        if (id == null) {
+            id = ObjectId.get().toHexString();
+            entity.getClass().getMethod("setId", String.class).invoke(entity, id);
+        }
+        store.put(id, entity);
+        return entity;
+    }
+
+    private static Object idOf(Object entity) throws ReflectiveOperationException {
+        return entity.getClass().getMethod("getId").invoke(entity);
+    }
+
+    private static Object read(Object entity, String property) throws ReflectiveOperationException {
+        String getter = "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        return entity.getClass().getMethod(getter).invoke(entity);
+    }
+}
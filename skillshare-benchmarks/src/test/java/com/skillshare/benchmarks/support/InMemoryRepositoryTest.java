@@ -0,0 +1,65 @@
+package com.skillshare.benchmarks.support;
+
+import com.skillshare.model.User;
+import com.skillshare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The benchmarks are only as meaningful as this stand-in: it must behave like the Mongo repository it replaces
+class InMemoryRepositoryTest {
+
+    private final UserRepository users = InMemoryRepository.create(UserRepository.class);
+
+    @Test
+    void saveAssignsAnObjectIdAndFindByIdReturnsTheEntity() {
+        User saved = users.save(user(null, "alice@skillshare.com"));
+
+        assertThat(saved.getId()).matches("[0-9a-f]{24}");
+        assertThat(users.findById(saved.getId())).containsSame(saved);
+        assertThat(users.existsById(saved.getId())).isTrue();
+        assertThat(users.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void derivedSingleArgumentFinderMatchesOnTheProperty() {
+        users.saveAll(List.of(user("u1", "alice@skillshare.com"), user("u2", "bob@skillshare.com")));
+
+        assertThat(users.findByEmail("bob@skillshare.com")).map(User::getId).contains("u2");
+        assertThat(users.findByEmail("nobody@skillshare.com")).isEmpty();
+    }
+
+    @Test
+    void findAllByIdSkipsMissingIds() {
+        users.saveAll(List.of(user("u1", "alice@skillshare.com"), user("u2", "bob@skillshare.com")));
+
+        assertThat(users.findAllById(List.of("u2", "missing", "u1"))).extracting(User::getId).containsExactly("u2", "u1");
+    }
+
+    @Test
+    void deleteRemovesTheEntity() {
+        users.save(user("u1", "alice@skillshare.com"));
+
+        users.deleteById("u1");
+
+        assertThat(users.findById("u1")).isEmpty();
+        assertThat(users.findAll()).isEmpty();
+    }
+
+    @Test
+    void unsupportedMethodsFailLoudly() {
+        assertThatThrownBy(() -> users.findAll(Pageable.ofSize(10)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static User user(String id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -18,6 +18,8 @@ import axios from "axios";
 const Home = () => {
   const { currentUser, isAuthenticated } = useAuth();
   const [posts, setPosts] = useState([]);
+  const [postsCursor, setPostsCursor] = useState(null);
+  const [loadingMorePosts, setLoadingMorePosts] = useState(false);
   const [users, setUsers] = useState({});
   const [content, setContent] = useState("");
   const [file, setFile] = useState(null);
@@ -32,11 +34,15 @@ const Home = () => {
     }
   }, [isAuthenticated]);
 
+  // First page of the feed; further pages are appended by loadMorePosts
   const loadPosts = async () => {
     try {
       setLoading(true);
       const response = await PostService.getAllPosts();
-      setPosts(response.data.posts);
+      setPosts(
+        await PostService.withViewerLikes(response.data.posts, currentUser?.id)
+      );
+      setPostsCursor(response.data.nextCursor || null);
 
       const uniqueUserIds = [
         ...new Set(response.data.posts.map((post) => post.userId)),
@@ -50,6 +56,28 @@ const Home = () => {
     }
   };
 
+  const loadMorePosts = async () => {
+    if (!postsCursor) return;
+    try {
+      setLoadingMorePosts(true);
+      const response = await PostService.getAllPosts(postsCursor);
+      const page = await PostService.withViewerLikes(
+        response.data.posts,
+        currentUser?.id
+      );
+      setPosts((current) => [
+        ...current,
+        ...page.filter((p) => !current.some((loaded) => loaded.id === p.id)),
+      ]);
+      setPostsCursor(response.data.nextCursor || null);
+      await loadUserData([...new Set(page.map((post) => post.userId))]);
+    } catch (error) {
+      console.error("Error loading more posts:", error);
+    } finally {
+      setLoadingMorePosts(false);
+    }
+  };
+
   const loadUserData = async (userIds) => {
     try {
       const userMap = { ...users };
@@ -128,38 +156,38 @@ const Home = () => {
     }
   };
 
+  // Optimistic: flip the heart and patch likeCount now, roll back if the request fails
+  const setLiked = (postId, liked) => {
+    setPosts((current) =>
+      current.map((post) =>
+        post.id === postId && !!post.likedByViewer !== liked
+          ? {
+              ...post,
+              likedByViewer: liked,
+              likeCount: Math.max(0, (post.likeCount || 0) + (liked ? 1 : -1)),
+            }
+          : post
+      )
+    );
+  };
+
   const handleLike = async (postId) => {
+    setLiked(postId, true);
     try {
       await PostService.likePost(postId, currentUser.id);
-      setPosts(
-        posts.map((post) =>
-          post.id === postId
-            ? { ...post, likedUserIds: [...post.likedUserIds, currentUser.id] }
-            : post
-        )
-      );
     } catch (error) {
       console.error("Error liking post:", error);
+      setLiked(postId, false);
     }
   };
 
   const handleUnlike = async (postId) => {
+    setLiked(postId, false);
     try {
       await PostService.unlikePost(postId, currentUser.id);
-      setPosts(
-        posts.map((post) =>
-          post.id === postId
-            ? {
-                ...post,
-                likedUserIds: post.likedUserIds.filter(
-                  (id) => id !== currentUser.id
-                ),
-              }
-            : post
-        )
-      );
     } catch (error) {
       console.error("Error unliking post:", error);
+      setLiked(postId, true);
     }
   };
 
@@ -317,7 +345,8 @@ const Home = () => {
                 firstname: "User",
                 lastname: "",
               };
-              const isLiked = post.likedUserIds.includes(currentUser?.id);
+              const isLiked = !!post.likedByViewer;
+              const likeCount = post.likeCount || 0;
 
               return (
                 <div key={post.id} className="modern-card post-card">
@@ -380,10 +409,8 @@ const Home = () => {
                         <FontAwesomeIcon
                           icon={isLiked ? solidHeart : regularHeart}
                         />
-                        {post.likedUserIds.length > 0
-                          ? post.likedUserIds.length
-                          : ""}{" "}
-                        {post.likedUserIds.length === 1 ? "Like" : "Likes"}
+                        {likeCount > 0 ? likeCount : ""}{" "}
+                        {likeCount === 1 ? "Like" : "Likes"}
                       </button>
 
                       <Link to={`/post/${post.id}`} className="post-action-btn">
@@ -400,6 +427,15 @@ const Home = () => {
               );
             })
         )}
+        {postsCursor && (
+          <button
+            className="btn-outline-primary load-more-posts-button"
+            onClick={loadMorePosts}
+            disabled={loadingMorePosts}
+          >
+            {loadingMorePosts ? "Loading..." : "Load more posts"}
+          </button>
+        )}
       </div>
     </div>
   );
@@ -23,6 +23,8 @@ const PostDetail = () => {
   const [post, setPost] = useState(null);
   const [author, setAuthor] = useState(null);
   const [comments, setComments] = useState([]);
+  const [commentsCursor, setCommentsCursor] = useState(null);
+  const [loadingMoreComments, setLoadingMoreComments] = useState(false);
   const [commentUsers, setCommentUsers] = useState({});
   const [commentText, setCommentText] = useState("");
   const [loading, setLoading] = useState(true);
@@ -41,7 +43,11 @@ const PostDetail = () => {
       setError("");
 
       const postResponse = await PostService.getPostById(id);
-      setPost(postResponse.data.post);
+      const [viewed] = await PostService.withViewerLikes(
+        [postResponse.data.post],
+        currentUser?.id
+      );
+      setPost(viewed);
 
       const authorId = postResponse.data.post.userId;
       const authorResponse = await UserService.getUserById(authorId);
@@ -58,10 +64,12 @@ const PostDetail = () => {
     }
   };
 
+  // First page of comments; further pages are appended by loadMoreComments
   const loadComments = async () => {
     try {
       const commentsResponse = await PostService.getComments(id);
       setComments(commentsResponse.data.comments);
+      setCommentsCursor(commentsResponse.data.nextCursor || null);
 
       const commentUserIds = [
         ...new Set(
@@ -74,6 +82,39 @@ const PostDetail = () => {
     }
   };
 
+  const loadMoreComments = async () => {
+    if (!commentsCursor) return;
+    try {
+      setLoadingMoreComments(true);
+      const commentsResponse = await PostService.getComments(
+        id,
+        commentsCursor
+      );
+      const page = commentsResponse.data.comments;
+      setComments((current) => [
+        ...current,
+        ...page.filter((c) => !current.some((loaded) => loaded.id === c.id)),
+      ]);
+      setCommentsCursor(commentsResponse.data.nextCursor || null);
+      await loadCommentUserData([...new Set(page.map((c) => c.userId))]);
+    } catch (error) {
+      console.error("Error loading more comments:", error);
+    } finally {
+      setLoadingMoreComments(false);
+    }
+  };
+
+  const adjustCommentCount = (delta) => {
+    setPost((current) =>
+      current
+        ? {
+            ...current,
+            commentCount: Math.max(0, (current.commentCount || 0) + delta),
+          }
+        : current
+    );
+  };
+
   const loadCommentUserData = async (userIds) => {
     try {
       const userMap = { ...commentUsers };
@@ -93,27 +134,36 @@ const PostDetail = () => {
     }
   };
 
+  // Optimistic: flip the heart and patch likeCount now, roll back if the request fails
+  const setLiked = (liked) => {
+    setPost((current) =>
+      !!current.likedByViewer === liked
+        ? current
+        : {
+            ...current,
+            likedByViewer: liked,
+            likeCount: Math.max(0, (current.likeCount || 0) + (liked ? 1 : -1)),
+          }
+    );
+  };
+
   const handleLike = async () => {
+    setLiked(true);
     try {
       await PostService.likePost(id, currentUser.id);
-      setPost({
-        ...post,
-        likedUserIds: [...post.likedUserIds, currentUser.id],
-      });
     } catch (error) {
       console.error("Error liking post:", error);
+      setLiked(false);
     }
   };
 
   const handleUnlike = async () => {
+    setLiked(false);
     try {
       await PostService.unlikePost(id, currentUser.id);
-      setPost({
-        ...post,
-        likedUserIds: post.likedUserIds.filter((uid) => uid !== currentUser.id),
-      });
     } catch (error) {
       console.error("Error unliking post:", error);
+      setLiked(true);
     }
   };
 
@@ -126,9 +176,18 @@ const PostDetail = () => {
 
     try {
       setSubmittingComment(true);
-      await PostService.addComment(id, currentUser.id, commentText);
+      const response = await PostService.addComment(
+        id,
+        currentUser.id,
+        commentText
+      );
       setCommentText("");
-      await loadComments();
+      adjustCommentCount(1);
+      // Oldest first: the new comment belongs on the last page, so only show it once that page is loaded
+      if (!commentsCursor && response.data.comment) {
+        setComments((current) => [...current, response.data.comment]);
+        await loadCommentUserData([currentUser.id]);
+      }
     } catch (error) {
       console.error("Error adding comment:", error);
     } finally {
@@ -159,6 +218,7 @@ const PostDetail = () => {
       try {
         await PostService.deleteComment(commentId);
         setComments(comments.filter((c) => c.id !== commentId));
+        adjustCommentCount(-1);
       } catch (error) {
         console.error("Error deleting comment:", error);
       }
@@ -208,7 +268,8 @@ const PostDetail = () => {
   }
 
   const isPostOwner = currentUser && post.userId === currentUser.id;
-  const isLiked = post.likedUserIds.includes(currentUser.id);
+  const isLiked = !!post.likedByViewer;
+  const likeCount = post.likeCount || 0;
 
   return (
     <div className="post-detail-container">
@@ -271,8 +332,7 @@ const PostDetail = () => {
             onClick={() => (isLiked ? handleUnlike() : handleLike())}
           >
             <FontAwesomeIcon icon={faHeart} />
-            {post.likedUserIds.length}{" "}
-            {post.likedUserIds.length === 1 ? "Like" : "Likes"}
+            {likeCount} {likeCount === 1 ? "Like" : "Likes"}
           </button>
         </div>
       </div>
@@ -314,7 +374,7 @@ const PostDetail = () => {
         <div className="comments-card">
           <div className="comments-header">
             <div>Comments</div>
-            <div className="comments-count">{comments.length}</div>
+            <div className="comments-count">{post.commentCount || 0}</div>
           </div>
           <div className="comments-body">
             {comments.length === 0 ? (
@@ -322,92 +382,99 @@ const PostDetail = () => {
                 No comments yet. Be the first to comment!
               </p>
             ) : (
-              comments
-                .sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt))
-                .map((comment) => {
-                  const commentUser = commentUsers[comment.userId];
-                  const isCommentOwner =
-                    currentUser && comment.userId === currentUser.id;
-
-                  return (
-                    <div key={comment.id} className="comment-card">
-                      <div className="comment-header">
-                        <div className="comment-avatar-container">
-                          {commentUser?.profilePic ? (
-                            <img
-                              src={`http://localhost:8080/uploads/${commentUser.profilePic}`}
-                              alt={`${commentUser.firstname}'s profile`}
-                              className="comment-avatar"
-                            />
-                          ) : (
-                            <div className="comment-avatar">
-                              {commentUser?.firstname.charAt(0).toUpperCase()}
-                            </div>
-                          )}
+              comments.map((comment) => {
+                const commentUser = commentUsers[comment.userId];
+                const isCommentOwner =
+                  currentUser && comment.userId === currentUser.id;
+
+                return (
+                  <div key={comment.id} className="comment-card">
+                    <div className="comment-header">
+                      <div className="comment-avatar-container">
+                        {commentUser?.profilePic ? (
+                          <img
+                            src={`http://localhost:8080/uploads/${commentUser.profilePic}`}
+                            alt={`${commentUser.firstname}'s profile`}
+                            className="comment-avatar"
+                          />
+                        ) : (
+                          <div className="comment-avatar">
+                            {commentUser?.firstname.charAt(0).toUpperCase()}
+                          </div>
+                        )}
+                      </div>
+                      <div className="comment-user-info">
+                        <Link
+                          to={`/profile/${comment.userId}`}
+                          className="comment-username"
+                        >
+                          {commentUser?.firstname} {commentUser?.lastname}
+                        </Link>
+                        <div className="comment-date">
+                          <FontAwesomeIcon icon={faClock} className="me-1" />
+                          {formatDate(comment.createdAt)}
                         </div>
-                        <div className="comment-user-info">
-                          <Link
-                            to={`/profile/${comment.userId}`}
-                            className="comment-username"
+                      </div>
+                    </div>
+
+                    {editingComment === comment.id ? (
+                      <div className="comment-edit-form">
+                        <textarea
+                          className="comment-edit-textarea"
+                          value={editText}
+                          onChange={(e) => setEditText(e.target.value)}
+                        ></textarea>
+                        <div className="comment-edit-actions">
+                          <button
+                            className="comment-save-button"
+                            onClick={() => handleUpdateComment(comment.id)}
                           >
-                            {commentUser?.firstname} {commentUser?.lastname}
-                          </Link>
-                          <div className="comment-date">
-                            <FontAwesomeIcon icon={faClock} className="me-1" />
-                            {formatDate(comment.createdAt)}
-                          </div>
+                            Save
+                          </button>
+                          <button
+                            className="comment-cancel-button"
+                            onClick={() => setEditingComment(null)}
+                          >
+                            Cancel
+                          </button>
                         </div>
                       </div>
+                    ) : (
+                      <>
+                        <div className="comment-body">{comment.text}</div>
 
-                      {editingComment === comment.id ? (
-                        <div className="comment-edit-form">
-                          <textarea
-                            className="comment-edit-textarea"
-                            value={editText}
-                            onChange={(e) => setEditText(e.target.value)}
-                          ></textarea>
-                          <div className="comment-edit-actions">
+                        {isCommentOwner && (
+                          <div className="comment-actions">
                             <button
-                              className="comment-save-button"
-                              onClick={() => handleUpdateComment(comment.id)}
+                              className="comment-action-button edit"
+                              onClick={() => handleEditComment(comment)}
                             >
-                              Save
+                              <FontAwesomeIcon icon={faEdit} />
+                              Edit
                             </button>
                             <button
-                              className="comment-cancel-button"
-                              onClick={() => setEditingComment(null)}
+                              className="comment-action-button delete"
+                              onClick={() => handleDeleteComment(comment.id)}
                             >
-                              Cancel
+                              <FontAwesomeIcon icon={faTrash} />
+                              Delete
                             </button>
                           </div>
-                        </div>
-                      ) : (
-                        <>
-                          <div className="comment-body">{comment.text}</div>
-
-                          {isCommentOwner && (
-                            <div className="comment-actions">
-                              <button
-                                className="comment-action-button edit"
-                                onClick={() => handleEditComment(comment)}
-                              >
-                                <FontAwesomeIcon icon={faEdit} />
-                                Edit
-                              </button>
-                              <button
-                                className="comment-action-button delete"
-                                onClick={() => handleDeleteComment(comment.id)}
-                              >
-                                <FontAwesomeIcon icon={faTrash} />
-                                Delete
-                              </button>
-                            </div>
-                          )}
-                        </>
-                      )}
-                    </div>
-                  );
-                })
+                        )}
+                      </>
+                    )}
+                  </div>
+                );
+              })
+            )}
+            {commentsCursor && (
+              <button
+                className="load-more-comments-button"
+                onClick={loadMoreComments}
+                disabled={loadingMoreComments}
+              >
+                {loadingMoreComments ? "Loading..." : "Load more comments"}
+              </button>
             )}
           </div>
         </div>
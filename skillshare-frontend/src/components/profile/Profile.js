@@ -20,8 +20,8 @@ const Profile = () => {
 
   const [user, setUser] = useState(null);
   const [posts, setPosts] = useState([]);
-  const [followers, setFollowers] = useState([]);
-  const [following, setFollowing] = useState([]);
+  const [postsCursor, setPostsCursor] = useState(null);
+  const [loadingMorePosts, setLoadingMorePosts] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
   const [isFollowing, setIsFollowing] = useState(false);
@@ -39,12 +39,7 @@ const Profile = () => {
       setUser(userResponse.data.user);
 
       await loadUserPosts();
-      await loadFollowers();
-      await loadFollowing();
-
-      if (currentUser && followers.includes(currentUser.id)) {
-        setIsFollowing(true);
-      }
+      await loadFollowState();
     } catch (error) {
       console.error("Error loading profile data:", error);
       setError("Failed to load profile data. Please try again later.");
@@ -53,41 +48,69 @@ const Profile = () => {
     }
   };
 
+  // First page of this user's posts; further pages are appended by loadMorePosts
   const loadUserPosts = async () => {
     try {
-      const allPostsResponse = await PostService.getAllPosts();
-      const userPosts = allPostsResponse.data.posts.filter(
-        (post) => post.userId === id
+      const response = await PostService.getPostsByUser(id);
+      setPosts(
+        await PostService.withViewerLikes(response.data.posts, currentUser?.id)
       );
-      setPosts(userPosts);
+      setPostsCursor(response.data.nextCursor || null);
     } catch (error) {
       console.error("Error loading user posts:", error);
     }
   };
 
-  const loadFollowers = async () => {
+  const loadMorePosts = async () => {
+    if (!postsCursor) return;
     try {
-      const response = await UserService.getFollowers(id);
-      setFollowers(response.data.followers);
+      setLoadingMorePosts(true);
+      const response = await PostService.getPostsByUser(id, postsCursor);
+      const page = await PostService.withViewerLikes(
+        response.data.posts,
+        currentUser?.id
+      );
+      setPosts((current) => [
+        ...current,
+        ...page.filter((p) => !current.some((loaded) => loaded.id === p.id)),
+      ]);
+      setPostsCursor(response.data.nextCursor || null);
     } catch (error) {
-      console.error("Error loading followers:", error);
+      console.error("Error loading more posts:", error);
+    } finally {
+      setLoadingMorePosts(false);
     }
   };
 
-  const loadFollowing = async () => {
+  // One edge lookup, instead of scanning the first page of followers
+  const loadFollowState = async () => {
+    if (!currentUser || currentUser.id === id) {
+      setIsFollowing(false);
+      return;
+    }
     try {
-      const response = await UserService.getFollowing(id);
-      setFollowing(response.data.following);
+      const response = await UserService.isFollowing(id, currentUser.id);
+      setIsFollowing(response.data.following);
     } catch (error) {
-      console.error("Error loading following:", error);
+      console.error("Error loading follow state:", error);
     }
   };
 
+  // The counter only moves when the request actually created / removed the edge
+  const adjustFollowerCount = (delta) => {
+    setUser((current) => ({
+      ...current,
+      followerCount: Math.max(0, (current.followerCount || 0) + delta),
+    }));
+  };
+
   const handleFollow = async () => {
     try {
-      await UserService.followUser(id, currentUser.id);
+      const response = await UserService.followUser(id, currentUser.id);
       setIsFollowing(true);
-      setFollowers([...followers, currentUser.id]);
+      if (response.data.changed) {
+        adjustFollowerCount(1);
+      }
     } catch (error) {
       console.error("Error following user:", error);
     }
@@ -95,48 +118,48 @@ const Profile = () => {
 
   const handleUnfollow = async () => {
     try {
-      await UserService.unfollowUser(id, currentUser.id);
+      const response = await UserService.unfollowUser(id, currentUser.id);
       setIsFollowing(false);
-      setFollowers(
-        followers.filter((followerId) => followerId !== currentUser.id)
-      );
+      if (response.data.changed) {
+        adjustFollowerCount(-1);
+      }
     } catch (error) {
       console.error("Error unfollowing user:", error);
     }
   };
 
+  // Optimistic: flip the heart and patch likeCount now, roll back if the request fails
+  const setLiked = (postId, liked) => {
+    setPosts((current) =>
+      current.map((post) =>
+        post.id === postId && !!post.likedByViewer !== liked
+          ? {
+              ...post,
+              likedByViewer: liked,
+              likeCount: Math.max(0, (post.likeCount || 0) + (liked ? 1 : -1)),
+            }
+          : post
+      )
+    );
+  };
+
   const handleLike = async (postId) => {
+    setLiked(postId, true);
     try {
       await PostService.likePost(postId, currentUser.id);
-      setPosts(
-        posts.map((post) =>
-          post.id === postId
-            ? { ...post, likedUserIds: [...post.likedUserIds, currentUser.id] }
-            : post
-        )
-      );
     } catch (error) {
       console.error("Error liking post:", error);
+      setLiked(postId, false);
     }
   };
 
   const handleUnlike = async (postId) => {
+    setLiked(postId, false);
     try {
       await PostService.unlikePost(postId, currentUser.id);
-      setPosts(
-        posts.map((post) =>
-          post.id === postId
-            ? {
-                ...post,
-                likedUserIds: post.likedUserIds.filter(
-                  (id) => id !== currentUser.id
-                ),
-              }
-            : post
-        )
-      );
     } catch (error) {
       console.error("Error unliking post:", error);
+      setLiked(postId, true);
     }
   };
 
@@ -255,11 +278,11 @@ const Profile = () => {
                   <span className="stat-label">Posts</span>
                 </div>
                 <div className="profile-stat">
-                  <span className="stat-value">{followers.length}</span>
+                  <span className="stat-value">{user.followerCount || 0}</span>
                   <span className="stat-label">Followers</span>
                 </div>
                 <div className="profile-stat">
-                  <span className="stat-value">{following.length}</span>
+                  <span className="stat-value">{user.followingCount || 0}</span>
                   <span className="stat-label">Following</span>
                 </div>
               </div>
@@ -279,7 +302,8 @@ const Profile = () => {
           posts
             .sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt))
             .map((post) => {
-              const isLiked = post.likedUserIds.includes(currentUser?.id);
+              const isLiked = !!post.likedByViewer;
+              const likeCount = post.likeCount || 0;
 
               return (
                 <div key={post.id} className="modern-card post-card">
@@ -340,10 +364,8 @@ const Profile = () => {
                         <FontAwesomeIcon
                           icon={isLiked ? solidHeart : regularHeart}
                         />
-                        {post.likedUserIds.length > 0
-                          ? post.likedUserIds.length
-                          : ""}{" "}
-                        {post.likedUserIds.length === 1 ? "Like" : "Likes"}
+                        {likeCount > 0 ? likeCount : ""}{" "}
+                        {likeCount === 1 ? "Like" : "Likes"}
                       </button>
 
                       <Link to={`/post/${post.id}`} className="post-action-btn">
@@ -360,6 +382,15 @@ const Profile = () => {
               );
             })
         )}
+        {postsCursor && (
+          <button
+            className="btn-outline-primary load-more-posts-button"
+            onClick={loadMorePosts}
+            disabled={loadingMorePosts}
+          >
+            {loadingMorePosts ? "Loading..." : "Load more posts"}
+          </button>
+        )}
       </div>
     </div>
   );
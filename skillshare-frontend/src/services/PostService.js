@@ -9,13 +9,43 @@ const getAuthHeader = () => {
 };
 
 class PostService {
-  // Get all posts
-  getAllPosts() {
+  // Get a page of the feed, newest first; pass the previous nextCursor for the next page
+  getAllPosts(cursor) {
     return axios.get(`${API_URL}/posts`, {
       headers: getAuthHeader(),
+      params: cursor ? { cursor } : {},
     });
   }
 
+  // Get a page of one user's posts, newest first; pass the previous nextCursor for the next page
+  getPostsByUser(userId, cursor) {
+    return axios.get(`${API_URL}/posts/user/${userId}`, {
+      headers: getAuthHeader(),
+      params: cursor ? { cursor } : {},
+    });
+  }
+
+  // Which of the given posts the user has liked, in one request
+  getLikedPostIds(userId, postIds) {
+    return axios.get(`${API_URL}/posts/liked`, {
+      headers: getAuthHeader(),
+      params: { userId, postIds: postIds.join(",") },
+    });
+  }
+
+  // Posts only carry likeCount now, so mark the viewer's likes with likedByViewer
+  async withViewerLikes(posts, userId) {
+    if (!userId || posts.length === 0) {
+      return posts;
+    }
+    const response = await this.getLikedPostIds(
+      userId,
+      posts.map((post) => post.id)
+    );
+    const liked = new Set(response.data.likedPostIds);
+    return posts.map((post) => ({ ...post, likedByViewer: liked.has(post.id) }));
+  }
+
   // Get a specific post by ID
   getPostById(postId) {
     return axios.get(`${API_URL}/posts/${postId}`, {
@@ -104,10 +134,11 @@ class PostService {
     );
   }
 
-  // Get all comments for a post
-  getComments(postId) {
+  // Get a page of comments for a post, oldest first; pass the previous nextCursor for the next page
+  getComments(postId, cursor) {
     return axios.get(`${API_URL}/posts/${postId}/comments`, {
       headers: getAuthHeader(),
+      params: cursor ? { cursor } : {},
     });
   }
 
@@ -48,6 +48,14 @@ class UserService {
     );
   }
 
+  // Whether followerId follows userId: { following: true | false }
+  isFollowing(userId, followerId) {
+    return axios.get(`${API_URL}/users/${userId}/follow`, {
+      headers: getAuthHeader(),
+      params: { followerId },
+    });
+  }
+
   // Get user followers
   getFollowers(userId) {
     return axios.get(`${API_URL}/users/${userId}/followers`, {